@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request execution under the same load.
+#
+# Needs: a built jar (./gradlew bootJar), a reachable MySQL configured as for bootRun,
+# and `hey` (https://github.com/rakyll/hey) on the PATH.
+#
+# Usage: scripts/loadtest.sh [concurrency] [duration]
+set -euo pipefail
+
+CONCURRENCY=${1:-800}
+DURATION=${2:-60s}
+PORT=${PORT:-8080}
+JAR=${JAR:-build/libs/taskManager-0.0.1.jar}
+OUT=build/reports/loadtest
+BASE="http://localhost:${PORT}"
+
+mkdir -p "$OUT"
+
+run_mode() {
+  local mode=$1 virtual=$2
+  echo "== ${mode} threads"
+  TASKMANAGER_VIRTUAL_THREADS=$virtual java -jar "$JAR" --server.port="$PORT" > "$OUT/${mode}-app.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" RETURN
+
+  until curl -sf "$BASE/actuator/health" > /dev/null; do sleep 1; done
+
+  # seed a few tasks so reads have something to return
+  for i in $(seq 1 50); do
+    curl -sf -o /dev/null -H 'Content-Type: application/json' \
+      -d "{\"title\":\"load ${i}\",\"description\":\"seed\",\"deadline\":\"2030-01-01T00:00:00Z\"}" "$BASE/tasks"
+  done
+
+  hey -z "$DURATION" -c "$CONCURRENCY" "$BASE/tasks?limit=50" > "$OUT/${mode}-list.txt"
+  hey -z "$DURATION" -c "$CONCURRENCY" "$BASE/tasks/1" > "$OUT/${mode}-get.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run_mode platform false
+run_mode virtual true
+
+for f in "$OUT"/*-list.txt "$OUT"/*-get.txt; do
+  printf '%-40s %s | %s\n' "$(basename "$f")" \
+    "$(grep 'Requests/sec' "$f" | xargs)" \
+    "$(grep '99%' "$f" | xargs)"
+done
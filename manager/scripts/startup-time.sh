@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Measures time to first request (JVM launch until GET /tasks?limit=1 answers 200) in the default
+# and the fast-start mode (AOT bean definitions + CDS archive + fast-start profile).
+#
+# Needs: ./gradlew cdsArchive, and a database configured as for bootRun. Extra jars (e.g. a JDBC
+# driver for a local database) go in EXTRA_CLASSPATH, extra application arguments in APP_ARGS.
+#
+# Usage: scripts/startup-time.sh [runs per mode]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+DIR=${DIR:-build/cds}
+OUT=build/reports/startup
+URL="http://localhost:${PORT}/tasks?limit=1"
+CLASSPATH="$DIR/taskManager.jar${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}"
+read -r -a APP <<< "${APP_ARGS:-}"
+
+mkdir -p "$OUT"
+
+measure() {
+  local mode=$1; shift
+  local total=0
+  for run in $(seq 1 "$RUNS"); do
+    local start end pid
+    start=$(date +%s%N)
+    java "$@" -cp "$CLASSPATH" com.sdmd.taskmanager.ManagerApplication --server.port="$PORT" "${APP[@]}" \
+      > "$OUT/${mode}-${run}.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+      kill -0 "$pid" 2>/dev/null || { echo "${mode}: application exited, see $OUT/${mode}-${run}.log"; exit 1; }
+      sleep 0.02
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    local ms=$(( (end - start) / 1000000 ))
+    total=$(( total + ms ))
+    echo "${mode} run ${run}: ${ms} ms"
+  done
+  echo "${mode}: mean time to first request $(( total / RUNS )) ms over ${RUNS} runs" | tee -a "$OUT/summary.txt"
+}
+
+: > "$OUT/summary.txt"
+measure default
+measure fast-start -XX:SharedArchiveFile="$DIR/taskManager.jsa" -Xlog:cds=error -Dspring.aot.enabled=true \
+  -Dspring.profiles.include=fast-start
@@ -0,0 +1,49 @@
+package com.sdmd.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.model.Task;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Shared inputs for the benchmarks, sized like a typical task (a short title and a paragraph of description).
+ */
+final class BenchmarkFixtures {
+
+    static final OffsetDateTime DEADLINE = OffsetDateTime.of(2030, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    static final String DESCRIPTION = "Prepare the quarterly report, collect numbers from finance, "
+            + "review the draft with the team and send the final version to the stakeholders.";
+
+    private BenchmarkFixtures() {
+    }
+
+    static Task task(long id) {
+        return new Task()
+                .id(id)
+                .title("Task " + id)
+                .description(DESCRIPTION)
+                .status(Task.StatusEnum.IN_PROGRESS)
+                .deadline(DEADLINE);
+    }
+
+    static TaskEntity entity(long id) {
+        TaskEntity entity = new TaskEntity();
+        entity.setId(id);
+        entity.setTitle("Task " + id);
+        entity.setDescription(DESCRIPTION);
+        entity.setStatus(Task.StatusEnum.IN_PROGRESS.getValue());
+        entity.setDeadline(DEADLINE);
+        return entity;
+    }
+
+    // Mirrors the Spring Boot defaults the web layer runs with
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
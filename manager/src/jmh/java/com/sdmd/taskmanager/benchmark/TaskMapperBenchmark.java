@@ -0,0 +1,48 @@
+package com.sdmd.taskmanager.benchmark;
+
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.mapper.TaskMapper;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private final TaskMapper mapper = new TaskMapperImpl();
+    private Task task;
+    private TaskEntity entity;
+
+    @Param({"Pending", "Completed"})
+    private String status;
+
+    @Setup
+    public void setup() {
+        task = BenchmarkFixtures.task(1L);
+        entity = BenchmarkFixtures.entity(1L);
+        entity.setStatus(status);
+    }
+
+    @Benchmark
+    public TaskEntity toEntity() {
+        return mapper.toEntity(task);
+    }
+
+    @Benchmark
+    public Task toDto() {
+        return mapper.toDto(entity);
+    }
+
+    // the linear StatusEnum.fromValue scan, isolated; "Completed" is the worst case
+    @Benchmark
+    public Task.StatusEnum toDtoStatus() {
+        return TaskMapper.toDtoStatus(status);
+    }
+}
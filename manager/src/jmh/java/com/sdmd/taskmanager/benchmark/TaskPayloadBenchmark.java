@@ -0,0 +1,115 @@
+package com.sdmd.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sdmd.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A GET /tasks response of {@code size} tasks in each representation the API offers, with and
+ * without gzip. Payload sizes are printed once per fork, before the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskPayloadBenchmark {
+
+    private static final String[] WORDS = ("prepare review send quarterly report numbers finance draft team final version "
+            + "stakeholders customer invoice meeting agenda release notes migrate database backup verify schedule "
+            + "follow up call vendor contract renewal budget forecast hiring plan onboarding checklist update").split(" ");
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Task> tasks;
+    private byte[] encoded;
+    private byte[] gzipped;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = format.equals("cbor")
+                ? new CBORMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                : BenchmarkFixtures.objectMapper();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+        reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+
+        // seeded, so every fork and format sees the same list
+        Random random = new Random(42);
+        tasks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Task task = BenchmarkFixtures.task(id);
+            // distinct descriptions, statuses and deadlines, so gzip does not get an unrealistically easy input
+            task.setDescription(description(random));
+            task.setStatus(Task.StatusEnum.values()[(int) (id % 3)]);
+            task.setDeadline(BenchmarkFixtures.DEADLINE.plusMinutes(id * 37));
+            task.setVersion(id % 5);
+            tasks.add(task);
+        }
+        encoded = writer.writeValueAsBytes(tasks);
+        gzipped = gzip(encoded);
+        System.out.printf("%n%s, %d tasks: %d bytes, %d bytes gzipped%n", format, size, encoded.length, gzipped.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<Task> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    // what the server does for a client sending Accept-Encoding: gzip
+    @Benchmark
+    public byte[] encodeGzipped() throws IOException {
+        return gzip(writer.writeValueAsBytes(tasks));
+    }
+
+    @Benchmark
+    public List<Task> decodeGzipped() throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return reader.readValue(in);
+        }
+    }
+
+    private static String description(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 10 + random.nextInt(40);
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(i % 9 == 8 ? ". " : " ");
+        }
+        return text.append(random.nextInt(100_000)).toString();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
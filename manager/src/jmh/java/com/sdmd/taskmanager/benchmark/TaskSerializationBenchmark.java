@@ -0,0 +1,55 @@
+package com.sdmd.taskmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdmd.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter taskWriter;
+    private ObjectReader taskReader;
+    private Task task;
+    private byte[] taskJson;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        taskWriter = objectMapper.writerFor(Task.class);
+        taskReader = objectMapper.readerFor(Task.class);
+        task = BenchmarkFixtures.task(42L);
+        taskJson = taskWriter.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws JsonProcessingException {
+        return taskWriter.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public Task deserializeTask() throws Exception {
+        return taskReader.readValue(taskJson);
+    }
+
+    // the body TaskController.createTask builds for every POST /tasks
+    @Benchmark
+    public byte[] serializeCreateResponse() throws JsonProcessingException {
+        Map<String, Object> response = Map.of(
+                "id", task.getId(),
+                "url", "http://localhost:8080/tasks/" + task.getId()
+        );
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,99 @@
+package com.sdmd.taskmanager.benchmark;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-layer CPU cost without the database: the repository is an in-memory map, so
+ * what is measured is request mapping, entity handling and DTO conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private TaskServiceImpl service;
+    private TaskCreateRequest createRequest;
+    private Task update;
+
+    @Setup
+    public void setup() {
+        service = new TaskServiceImpl(
+                inMemoryRepository(),
+                new TaskMapperImpl(),
+                null,  // EntityManager: only used by streamTasks
+                new PaginationProperties(),
+                new BatchProperties(),
+                null,  // TransactionTemplate: only used by the batch paths
+                new NoOpCacheManager(),
+                null,  // Validator: only used by the batch paths
+                event -> { });
+        for (long i = 1; i <= ROWS; i++) {
+            service.createTask(new TaskCreateRequest("Task " + i, BenchmarkFixtures.DESCRIPTION, BenchmarkFixtures.DEADLINE));
+        }
+        createRequest = new TaskCreateRequest("New task", BenchmarkFixtures.DESCRIPTION, BenchmarkFixtures.DEADLINE);
+        update = BenchmarkFixtures.task(ROWS / 2).status(Task.StatusEnum.COMPLETED);
+    }
+
+    @Benchmark
+    public Task getTaskById() {
+        return service.getTaskById(ROWS / 2L);
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return service.createTask(createRequest);
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return service.updateTask(update.getId(), update);
+    }
+
+    /**
+     * Implements just the TaskRepository methods the single-task service paths call.
+     */
+    private static TaskRepository inMemoryRepository() {
+        Map<Long, TaskEntity> rows = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+        return (TaskRepository) Proxy.newProxyInstance(
+                TaskRepository.class.getClassLoader(),
+                new Class<?>[]{TaskRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save", "saveAndFlush" -> {
+                        TaskEntity entity = (TaskEntity) args[0];
+                        if (entity.getId() == null) {
+                            entity.setId(ids.incrementAndGet());
+                        }
+                        rows.put(entity.getId(), entity);
+                        yield entity;
+                    }
+                    case "findById" -> Optional.ofNullable(rows.get((Long) args[0]));
+                    case "delete" -> {
+                        rows.remove(((TaskEntity) args[0]).getId());
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -1,16 +1,58 @@
 package com.sdmd.taskmanager.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
 import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskCursor;
+import com.sdmd.taskmanager.dto.TaskField;
+import com.sdmd.taskmanager.dto.TaskHistoryEntry;
+import com.sdmd.taskmanager.dto.TaskHistoryPage;
+import com.sdmd.taskmanager.dto.TaskPage;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.dto.TaskSort;
+import com.sdmd.taskmanager.dto.TaskSummaryPage;
+import com.sdmd.taskmanager.dto.TaskWriteStatus;
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.exception.TaskVersionConflictException;
+import com.sdmd.taskmanager.exception.TaskWriteNotFoundException;
+import com.sdmd.taskmanager.history.TaskHistoryReader;
+import com.sdmd.taskmanager.idempotency.IdempotencyCoordinator;
+import com.sdmd.taskmanager.idempotency.IdempotentResponse;
 import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.model.TaskSummary;
+import com.sdmd.taskmanager.model.TaskTreeNode;
+import com.sdmd.taskmanager.replica.ReadYourWrites;
 import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import com.sdmd.taskmanager.writebehind.TaskWriteBehind;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -22,61 +64,375 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Tasks", description = "API for managing tasks")
 public class TaskController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final TaskService taskService;
+    private final IdempotencyCoordinator idempotency;
+    private final ObjectMapper objectMapper;
+    private final TaskHistoryReader history;
+    // null unless taskmanager.write-behind.enabled
+    private final TaskWriteBehind writeBehind;
+    // Flushing is left to the servlet buffer, not done after every row
+    private final ObjectWriter streamWriter;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, IdempotencyCoordinator idempotency, ObjectMapper objectMapper,
+                          TaskHistoryReader history, ObjectProvider<TaskWriteBehind> writeBehind) {
         this.taskService = taskService;
+        this.idempotency = idempotency;
+        this.objectMapper = objectMapper;
+        this.history = history;
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.streamWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
-    @Operation(summary = "Create a new task", description = "Creates a new task and returns the location of the created resource.")
+    @Operation(summary = "Create a new task", description = "Creates a new task and returns the location of the created resource. "
+            + "With an Idempotency-Key header, retries of the same request return the first response instead of creating another task. "
+            + "In write-behind mode, requests without one are queued and answered with 202 and a tracking id instead.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Task successfully created"),
-            @ApiResponse(responseCode = "400", description = "Validation failed")
+            @ApiResponse(responseCode = "201", description = "Task successfully created, or replayed (Idempotent-Replayed: true)"),
+            @ApiResponse(responseCode = "202", description = "Task accepted for writing, see GET /tasks/writes/{trackingId}"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still running"),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used for a different request"),
+            @ApiResponse(responseCode = "503", description = "The write-behind queue is full")
     })
     @PostMapping
     public ResponseEntity<Map<String, Object>> createTask(
             @Valid @RequestBody TaskCreateRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             UriComponentsBuilder uriBuilder) {
 
+        if (idempotencyKey == null && writeBehind != null) {
+            return accepted(writeBehind.enqueue(request), uriBuilder);
+        }
+        // a keyed request is always written synchronously, so a replay can answer with the task itself
+        if (idempotencyKey == null) {
+            return created(create(request, null, uriBuilder), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidQueryParameterException(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        String fingerprint = fingerprint(request);
+        IdempotencyCoordinator.Execution execution =
+                idempotency.execute(idempotencyKey, fingerprint, () -> create(request, fingerprint, uriBuilder));
+        return created(execution.response(), execution.replayed());
+    }
+
+    private IdempotentResponse create(TaskCreateRequest request, String fingerprint, UriComponentsBuilder uriBuilder) {
         Task savedTask = taskService.createTask(request);
         URI location = uriBuilder.path("/tasks/{id}").buildAndExpand(savedTask.getId()).toUri();
+        return new IdempotentResponse(fingerprint, HttpStatus.CREATED.value(), savedTask.getId(), location.toString(),
+                TaskETags.of(savedTask.getVersion()));
+    }
 
+    private static ResponseEntity<Map<String, Object>> created(IdempotentResponse created, boolean replayed) {
         Map<String, Object> response = Map.of(
-                "id", savedTask.getId(),
-                "url", location.toString()
+                "id", created.id(),
+                "url", created.url()
         );
 
-        return ResponseEntity.created(location).body(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(created.status())
+                .location(URI.create(created.url()))
+                .eTag(created.etag());
+        if (replayed) {
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return builder.body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(UUID trackingId, UriComponentsBuilder uriBuilder) {
+        URI location = uriBuilder.path("/tasks/writes/{trackingId}").buildAndExpand(trackingId).toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(Map.of(
+                        "trackingId", trackingId,
+                        "state", TaskWriteStatus.State.QUEUED,
+                        "url", location.toString()
+                ));
+    }
+
+    @Operation(summary = "Get the status of a queued task write", description = "Reports whether a task accepted in "
+            + "write-behind mode is still QUEUED, PERSISTED (with its id) or FAILED. Answered by the instance that "
+            + "accepted the task, for taskmanager.write-behind.status-ttl.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status found"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired tracking id")
+    })
+    @GetMapping("/writes/{trackingId}")
+    public ResponseEntity<TaskWriteStatus> getWriteStatus(@PathVariable UUID trackingId) {
+        TaskWriteStatus status = writeBehind != null ? writeBehind.status(trackingId).orElse(null) : null;
+        if (status == null) {
+            throw new TaskWriteNotFoundException(trackingId);
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    // the key must not be reused for a different task; the body as the service will see it identifies the request
+    private String fingerprint(TaskCreateRequest request) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Operation(summary = "Create tasks in bulk", description = "Creates up to taskmanager.batch.max-items tasks using batched inserts. "
+            + "Each item is reported separately; invalid items do not stop the others.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item outcomes"),
+            @ApiResponse(responseCode = "413", description = "Too many items in one request")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResult> createTasks(@RequestBody List<TaskCreateRequest> requests) {
+        return ResponseEntity.ok(taskService.createTasks(requests));
     }
 
-    @Operation(summary = "Get a task by ID", description = "Retrieves the task with the specified ID.")
+    @Operation(summary = "Get a task by ID", description = "Retrieves the task with the specified ID. "
+            + "Send the ETag back in If-None-Match to get 304 while the task is unchanged. "
+            + "With asOf, returns the task as it was at that time, rebuilt from its history "
+            + "(recorded fields, id and version only; no ETag).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task found"),
-            @ApiResponse(responseCode = "404", description = "Task not found")
+            @ApiResponse(responseCode = "304", description = "Task unchanged since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "Task not found, or not at asOf")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<Task> getTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf) {
+
+        if (asOf != null) {
+            // a past state has no version of its own to tag: compaction can still replace it
+            return ResponseEntity.ok(history.getTaskAsOf(id, asOf));
+        }
+        if (ifNoneMatch != null) {
+            // Compare versions before loading the task, so a 304 never maps or serializes it
+            String current = TaskETags.of(taskService.getTaskVersion(id));
+            if (TaskETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        Task task = taskService.getTaskById(id);
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(task);
+    }
+
+    @Operation(summary = "Get the change history of a task", description = "Returns the recorded changes of the task, "
+            + "newest first, each with the fields it changed and their new values (all of them for CREATED). "
+            + "Pages like GET /tasks, through X-Next-Cursor and a rel=\"next\" Link. Changes older than "
+            + "taskmanager.history.retention are compacted, and gone for deleted tasks.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History retrieved, empty for unknown tasks"),
+            @ApiResponse(responseCode = "304", description = "No change recorded since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    })
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<TaskHistoryEntry>> getTaskHistory(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long after) {
+
+        TaskHistoryPage page = history.getHistory(id, after, limit);
+        String cursor = page.getNextCursor() != null ? page.getNextCursor().toString() : null;
+        // rows are never changed, only added or compacted away, so their versions identify the page
+        String etag = TaskETags.ofPage(page.getItems(), TaskHistoryEntry::getVersion, TaskHistoryEntry::getVersion,
+                "history;" + id + ";" + cursor);
+        return pageResponse(ifNoneMatch, page.getItems(), cursor, etag);
+    }
+
+    @Operation(summary = "Get a task with its subtasks", description = "Returns the task and all its subtasks, "
+            + "or those up to depth levels below it, as a tree of TaskTreeNode (without descriptions). "
+            + "Read with one recursive query; send the ETag back in If-None-Match to get 304 while no node changed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tree retrieved"),
+            @ApiResponse(responseCode = "304", description = "No task in the tree changed since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Negative depth"),
+            @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<TaskTreeNode> getTaskTree(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) Integer depth) {
+
+        TaskTreeNode root = taskService.getTaskTree(id, depth);
+        // a subtask change only moves its own parent's version, so the tag covers every node
+        List<TaskTreeNode> nodes = new ArrayList<>(List.of(root));
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.addAll(nodes.get(i).getChildren());
+        }
+        String etag = TaskETags.ofPage(nodes, TaskTreeNode::getId, TaskTreeNode::getVersion, "tree;" + depth);
+        if (TaskETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(root);
     }
 
-    @Operation(summary = "Get all tasks", description = "Returns a list of all tasks.")
+    @Operation(summary = "Get tasks", description = "Returns one page of tasks, optionally filtered by status and deadline range. "
+            + "Sort is one of id, -id, deadline, -deadline (default id). "
+            + "fields (any of id, title, status, deadline, version) returns TaskSummary items with only those properties, "
+            + "read without the description column. "
+            + "When more tasks exist, the X-Next-Cursor header and a rel=\"next\" Link carry the cursor for the next page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, sort, fields, limit or cursor")
     })
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<? extends List<?>> getAllTasks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) Set<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime deadlineFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime deadlineTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+
+        TaskQuery query = TaskQuery.builder()
+                .statuses(toStatuses(status))
+                .deadlineFrom(deadlineFrom)
+                .deadlineTo(deadlineTo)
+                .sort(TaskSort.fromValue(sort))
+                .build();
+        if (fields == null) {
+            return pageResponse(ifNoneMatch, taskService.getTasks(query, TaskCursor.decode(after), limit));
+        }
+
+        Set<TaskField> selected = TaskField.fromValues(fields);
+        TaskSummaryPage page = taskService.getTaskSummaries(query, TaskCursor.decode(after), limit);
+        String cursor = page.getNextCursor() != null ? page.getNextCursor().encode() : null;
+        // The tag covers the field selection too, and is taken before unselected fields (version among them) are dropped
+        String etag = TaskETags.ofPage(page.getItems(), TaskSummary::getId, TaskSummary::getVersion, cursor + ";" + selected);
+        List<TaskSummary> items = page.getItems().stream().map(summary -> TaskField.select(summary, selected)).toList();
+        return pageResponse(ifNoneMatch, items, cursor, etag);
     }
 
-    @Operation(summary = "Update an existing task", description = "Updates the task with the given ID.")
+    @Operation(summary = "Search tasks", description = "Full-text search over title and description, best matches first. "
+            + "Pages the same way as GET /tasks, through X-Next-Cursor and a rel=\"next\" Link.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing search text, invalid limit or cursor")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+
+        if (q.isBlank()) {
+            throw new InvalidQueryParameterException("q", q);
+        }
+        return pageResponse(ifNoneMatch, taskService.searchTasks(q, TaskCursor.decode(after), limit));
+    }
+
+    private ResponseEntity<List<Task>> pageResponse(String ifNoneMatch, TaskPage page) {
+        String cursor = page.getNextCursor() != null ? page.getNextCursor().encode() : null;
+        return pageResponse(ifNoneMatch, page.getItems(), cursor, TaskETags.ofPage(page.getItems(), cursor));
+    }
+
+    private <T> ResponseEntity<List<T>> pageResponse(String ifNoneMatch, List<T> items, String cursor, String etag) {
+        if (TaskETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (cursor != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", cursor)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, cursor);
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(items);
+    }
+
+    @Operation(summary = "Stream all tasks", description = "Writes every task as one JSON array, row by row, without buffering the table in memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed successfully")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        // the body runs on an async thread, which has neither the request's tenant nor its read-your-writes pin
+        String tenantId = TenantContext.current();
+        boolean pinned = ReadYourWrites.isPinned();
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                TenantContext.callAs(tenantId, () -> ReadYourWrites.callAs(pinned, () -> {
+                    taskService.streamTasks(task -> {
+                        try {
+                            streamWriter.writeValue(generator, task);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                    return null;
+                }));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @Operation(summary = "Update an existing task", description = "Updates the task with the given ID. "
+            + "With If-Match (or a version in the body) the update only applies if the task has not changed since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task updated successfully"),
             @ApiResponse(responseCode = "404", description = "Task not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid request")
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "412", description = "Task was changed by someone else")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @Valid @RequestBody Task task) {
-        return ResponseEntity.ok(taskService.updateTask(id, task));
+    public ResponseEntity<Task> updateTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody Task task) {
+
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            task.setVersion(TaskETags.parseVersion(ifMatch)
+                    .orElseThrow(() -> new TaskVersionConflictException(id, ifMatch)));
+        }
+        Task updated = taskService.updateTask(id, task);
+        return ResponseEntity.ok().eTag(TaskETags.of(updated.getVersion())).body(updated);
+    }
+
+    @Operation(summary = "Partially update a task", description = "Applies a JSON Merge Patch (RFC 7396): only the fields present "
+            + "in the body change, and only those columns are written. Fields cannot be removed (sent as null). "
+            + "If-Match works as for PUT.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "400", description = "A field was set to null"),
+            @ApiResponse(responseCode = "412", description = "Task was changed by someone else")
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Task> patchTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody TaskPatch patch) {
+
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            patch.setVersion(TaskETags.parseVersion(ifMatch)
+                    .orElseThrow(() -> new TaskVersionConflictException(id, ifMatch)));
+        }
+        Task patched = taskService.patchTask(id, patch);
+        return ResponseEntity.ok().eTag(TaskETags.of(patched.getVersion())).body(patched);
+    }
+
+    @Operation(summary = "Update tasks in bulk", description = "Replaces the tasks identified by each item's id using batched updates.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item outcomes"),
+            @ApiResponse(responseCode = "413", description = "Too many items in one request")
+    })
+    @PatchMapping("/batch")
+    public ResponseEntity<TaskBatchResult> updateTasks(@RequestBody List<Task> tasks) {
+        return ResponseEntity.ok(taskService.updateTasks(tasks));
     }
 
     @Operation(summary = "Delete a task", description = "Deletes the task with the specified ID.")
@@ -89,4 +445,29 @@ public class TaskController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Delete tasks in bulk", description = "Deletes the tasks whose ids are listed in the body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item outcomes"),
+            @ApiResponse(responseCode = "413", description = "Too many items in one request")
+    })
+    @DeleteMapping("/batch")
+    public ResponseEntity<TaskBatchResult> deleteTasks(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskService.deleteTasks(ids));
+    }
+
+    private static Set<Task.StatusEnum> toStatuses(Set<String> values) {
+        if (values == null) {
+            return null;
+        }
+        Set<Task.StatusEnum> statuses = EnumSet.noneOf(Task.StatusEnum.class);
+        for (String value : values) {
+            try {
+                statuses.add(Task.StatusEnum.fromValue(value));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidQueryParameterException("status", value);
+            }
+        }
+        return statuses;
+    }
 }
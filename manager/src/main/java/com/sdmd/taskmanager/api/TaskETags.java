@@ -0,0 +1,87 @@
+package com.sdmd.taskmanager.api;
+
+import com.sdmd.taskmanager.model.Task;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * ETags for tasks, derived from the optimistic-locking version, and the
+ * If-None-Match / If-Match comparisons used by {@link TaskController}.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    /**
+     * The tag of a single task. It is weak for the same reason as {@link #ofPage(List, String)}:
+     * the JSON and CBOR bodies of one version differ byte for byte.
+     */
+    static String of(Long version) {
+        return version != null ? "W/\"" + version + "\"" : null;
+    }
+
+    /**
+     * One tag for a whole page: it changes whenever a task on the page changes version,
+     * a task enters or leaves the page, or the next cursor moves. It is weak because it does not
+     * change with the encoding (JSON or CBOR, gzipped or not), and Tomcat only compresses
+     * responses without a strong ETag.
+     */
+    static String ofPage(List<Task> items, String nextCursor) {
+        return ofPage(items, Task::getId, Task::getVersion, nextCursor);
+    }
+
+    /**
+     * Same as {@link #ofPage(List, String)} for any item type; {@code suffix} carries whatever
+     * else shapes the response, such as the next cursor and the selected fields.
+     */
+    static <T> String ofPage(List<T> items, Function<T, Long> id, Function<T, Long> version, String suffix) {
+        StringBuilder key = new StringBuilder();
+        for (T item : items) {
+            key.append(id.apply(item)).append(':').append(version.apply(item)).append(',');
+        }
+        key.append(suffix);
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so W/ prefixes are ignored on both sides.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version out of an If-Match value produced by {@link #of(Long)}; the W/ prefix is
+     * optional, as the version identifies the task state whatever the encoding.
+     * Empty for {@code *} or anything this server did not issue.
+     */
+    static Optional<Long> parseVersion(String ifMatch) {
+        String tag = stripWeak(ifMatch.trim());
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(tag.substring(1, tag.length() - 1)));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
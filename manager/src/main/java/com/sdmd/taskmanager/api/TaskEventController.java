@@ -0,0 +1,37 @@
+package com.sdmd.taskmanager.api;
+
+import com.sdmd.taskmanager.event.TaskEventBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/tasks/events")
+@Tag(name = "Tasks", description = "API for managing tasks")
+public class TaskEventController {
+
+    private final TaskEventBroadcaster broadcaster;
+
+    public TaskEventController(TaskEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Operation(summary = "Stream task changes", description = "Server-Sent Events stream of created/updated/deleted tasks. "
+            + "Reconnect with Last-Event-ID to receive missed events; a 'reset' event means the gap was too large "
+            + "and the client should reload with GET /tasks.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sdmd.taskmanager.api;
+
+import com.sdmd.taskmanager.dto.TaskStats;
+import com.sdmd.taskmanager.stats.TaskStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/tasks/stats")
+@Tag(name = "Tasks", description = "API for managing tasks")
+public class TaskStatsController {
+
+    private final TaskStatistics statistics;
+
+    public TaskStatsController(TaskStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Operation(summary = "Task statistics", description = "Counts by status, plus open tasks that are overdue, due today "
+            + "and due this week. Served from counters kept in memory, so the cost does not depend on the number of tasks.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    })
+    @GetMapping
+    public ResponseEntity<TaskStats> getStats() {
+        return ResponseEntity.ok(statistics.snapshot());
+    }
+}
@@ -0,0 +1,14 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.batch")
+public class BatchProperties {
+    // rows written per transaction; keep it a multiple of hibernate.jdbc.batch_size
+    private int chunkSize = 500;
+    private int maxItems = 10000;
+}
@@ -0,0 +1,26 @@
+package com.sdmd.taskmanager.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the read-through task cache. The provider, size and TTL come from
+ * {@code spring.cache.*}, so the Caffeine default can be swapped (or set to {@code none})
+ * without code changes. Hit/miss/eviction counters are published under {@code cache.*}
+ * on the actuator metrics endpoint.
+ * <p>
+ * The cache advice is ordered outside the transaction advice, so {@code @CachePut} and
+ * {@code @CacheEvict} on a transactional method only run once the transaction has committed,
+ * and outside the single-flight advice ({@link SingleFlightConfig}), so cache hits skip it.
+ * Misses are loaded with {@code sync = true}: a put or evict after commit then waits for a load
+ * still in flight instead of being overwritten by the old row that load read.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 2)
+public class CacheConfig {
+    public static final String TASKS_CACHE = "tasks";
+    // cache keys of a task for the current tenant (TenantContext.cacheKey), as @Cacheable key expressions
+    public static final String TASK_KEY = "T(com.sdmd.taskmanager.tenant.TenantContext).cacheKey(#id)";
+    public static final String RESULT_TASK_KEY = "T(com.sdmd.taskmanager.tenant.TenantContext).cacheKey(#result.id)";
+}
@@ -0,0 +1,26 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.deadlines")
+public class DeadlineProperties {
+    // turn on for one instance only, or every instance fires the same events and marks the same tasks
+    private boolean enabled = false;
+    // how long before the deadline the reminder fires
+    private Duration reminderLead = Duration.ofMinutes(15);
+    // how far ahead deadlines are held in memory; the window is refilled when half of it has passed
+    private Duration horizon = Duration.ofHours(1);
+    private Duration tick = Duration.ofSeconds(1);
+    // events fired per batch; the index lock is released between batches
+    private int fireBatchSize = 1000;
+    // after downtime, deadlines missed by more than this are not fired late
+    private Duration maxCatchUp = Duration.ofHours(1);
+    // how often the fired-until watermark is persisted
+    private Duration watermarkFlushInterval = Duration.ofSeconds(10);
+}
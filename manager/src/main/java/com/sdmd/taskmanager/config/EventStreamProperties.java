@@ -0,0 +1,21 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.events")
+public class EventStreamProperties {
+    // events kept for Last-Event-ID resumption
+    private int bufferSize = 1024;
+    // events queued per client before it is treated as too slow and disconnected
+    private int subscriberQueueSize = 256;
+    private int maxSubscribers = 1000;
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeat = Duration.ofSeconds(15);
+    private int dispatchThreads = 4;
+}
@@ -0,0 +1,47 @@
+package com.sdmd.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Request execution mode. {@code spring.threads.virtual.enabled} (default false) switches Tomcat,
+ * MVC async and the task executors to virtual threads; in that mode every DataSource is wrapped in
+ * a {@link BulkheadDataSource} sized to the connection pool, so the number of threads blocked on
+ * JDBC stays tied to what MySQL can actually serve.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static BeanPostProcessor dataSourceBulkheadPostProcessor(ObjectProvider<ExecutionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // wrappers (a bulkhead already, or the replica routing proxy) lead to pools guarded on their own
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                return bulkhead(dataSource, properties.getObject());
+            }
+        };
+    }
+
+    static BulkheadDataSource bulkhead(DataSource dataSource, ExecutionProperties properties) {
+        ExecutionProperties.Bulkhead bulkhead = properties.getBulkhead();
+        int maxConcurrent = bulkhead.getMaxConcurrentConnections();
+        if (maxConcurrent <= 0) {
+            maxConcurrent = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        }
+        return new BulkheadDataSource(dataSource, maxConcurrent, bulkhead.getMaxWaiting(),
+                bulkhead.getAcquireTimeout().toMillis());
+    }
+}
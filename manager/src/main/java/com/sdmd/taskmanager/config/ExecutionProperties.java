@@ -0,0 +1,28 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the virtual-thread execution mode ({@code spring.threads.virtual.enabled=true}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.execution")
+public class ExecutionProperties {
+
+    private final Bulkhead bulkhead = new Bulkhead();
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        // 0 means "same as the Hikari maximum pool size"
+        private int maxConcurrentConnections = 0;
+        // callers queued beyond this are rejected immediately instead of parking
+        private int maxWaiting = 1000;
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.history")
+public class HistoryProperties {
+
+    // false stops recording history; what was recorded can still be read
+    private boolean enabled = true;
+    // a full copy of the task is kept every this many updates, so a time-travel read replays fewer deltas than that
+    private int snapshotInterval = 20;
+    // older changes are folded into one snapshot per task; tasks deleted before it lose their history
+    private Duration retention = Duration.ofDays(365);
+    private Duration compactionInterval = Duration.ofHours(1);
+    // tasks compacted per transaction
+    private int compactionBatchSize = 500;
+}
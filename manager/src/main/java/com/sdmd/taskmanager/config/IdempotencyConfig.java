@@ -0,0 +1,36 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.idempotency.DatabaseIdempotencyStore;
+import com.sdmd.taskmanager.idempotency.IdempotencyCoordinator;
+import com.sdmd.taskmanager.idempotency.IdempotencyStore;
+import com.sdmd.taskmanager.idempotency.InMemoryIdempotencyStore;
+import com.sdmd.taskmanager.repository.IdempotencyKeyRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Picks the {@link IdempotencyStore} named by {@code taskmanager.idempotency.store}.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskmanager.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+        return new InMemoryIdempotencyStore(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskmanager.idempotency", name = "store", havingValue = "database")
+    public IdempotencyStore databaseIdempotencyStore(IdempotencyKeyRepository repository, IdempotencyProperties properties) {
+        return new DatabaseIdempotencyStore(repository, properties);
+    }
+
+    @Bean
+    public IdempotencyCoordinator idempotencyCoordinator(IdempotencyStore store, IdempotencyProperties properties,
+                                                         TransactionTemplate transactionTemplate) {
+        return new IdempotencyCoordinator(store, properties, transactionTemplate);
+    }
+}
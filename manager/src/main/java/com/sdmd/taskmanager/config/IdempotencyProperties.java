@@ -0,0 +1,30 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for {@code POST /tasks}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.idempotency")
+public class IdempotencyProperties {
+
+    public enum Store { MEMORY, DATABASE }
+
+    // MEMORY is per instance; DATABASE (the idempotency_keys table) also replays retries that land on another instance
+    private Store store = Store.MEMORY;
+    // how long a key is remembered; clients must not retry later than this
+    private Duration ttl = Duration.ofHours(24);
+    // MEMORY only: least recently written keys are dropped beyond this
+    private long maxKeys = 100_000;
+    // a retry that arrives while the original is still running waits this long for its result;
+    // DATABASE: a key claimed for longer is assumed to belong to a request that died, and is taken over
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+    // DATABASE only: how often expired keys are deleted
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
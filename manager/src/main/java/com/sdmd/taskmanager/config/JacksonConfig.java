@@ -0,0 +1,30 @@
+package com.sdmd.taskmanager.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openapitools.jackson.nullable.JsonNullableModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson setup shared by every representation the API speaks.
+ * <p>
+ * {@link JsonNullableModule} lets a merge patch tell a field sent as {@code null} from one that was
+ * left out. The CBOR converter serves {@code application/cbor} to clients that ask for it in
+ * {@code Accept}; it is built from Spring Boot's configured builder, so it carries the same modules
+ * and {@code spring.jackson.*} settings as the JSON one (dates stay ISO-8601 strings, for example).
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public JsonNullableModule jsonNullableModule() {
+        return new JsonNullableModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
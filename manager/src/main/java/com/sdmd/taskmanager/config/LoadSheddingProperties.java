@@ -0,0 +1,27 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.load-shedding")
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+    // mean request latency over a sample interval above which requests start being rejected
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+    // same, for the mean time spent waiting for a pooled connection
+    private Duration poolWaitThreshold = Duration.ofMillis(200);
+    private Duration sampleInterval = Duration.ofSeconds(1);
+    // intervals with fewer completed requests say nothing about latency
+    private int minRequests = 20;
+    // never reject more than this fraction, so there are still requests to measure recovery with
+    private double maxShedFraction = 0.9;
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/**"));
+}
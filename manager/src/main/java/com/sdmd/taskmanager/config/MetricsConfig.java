@@ -0,0 +1,39 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.metrics.JdbcTimingSessionListener;
+import com.sdmd.taskmanager.metrics.RequestTimingFilter;
+import com.sdmd.taskmanager.metrics.SqlSamplingStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request database vs application time. Hibernate reports statement timings and SQL to the
+ * request on the current thread; {@link RequestTimingFilter} turns them into meters. Pool
+ * (hikaricp.*), Hibernate statistics (hibernate.*), repository, service and HTTP timers come
+ * from the actuator auto-configuration; everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestTimingHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingSessionListener.class.getName());
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlSamplingStatementInspector());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(MeterRegistry registry, MetricsProperties properties) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter(registry, properties));
+        // outside security and everything else, so the whole request is measured
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
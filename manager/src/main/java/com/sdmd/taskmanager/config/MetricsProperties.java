@@ -0,0 +1,18 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.metrics")
+public class MetricsProperties {
+    // requests at least this slow are logged when sampled
+    private Duration slowRequestThreshold = Duration.ofMillis(500);
+    // fraction of requests (0..1) whose SQL is captured for the slow request log; 0 turns it off
+    private double slowRequestSampleRate = 0.0;
+    private int maxSampledStatements = 50;
+}
@@ -0,0 +1,29 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.outbox.InProcessOutboxPublisher;
+import com.sdmd.taskmanager.outbox.LoggingOutboxPublisher;
+import com.sdmd.taskmanager.outbox.OutboxPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the built-in {@link OutboxPublisher} named by {@code taskmanager.outbox.publisher}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "taskmanager.outbox", name = "enabled", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskmanager.outbox", name = "publisher", havingValue = "log", matchIfMissing = true)
+    public OutboxPublisher loggingOutboxPublisher() {
+        return new LoggingOutboxPublisher();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskmanager.outbox", name = "publisher", havingValue = "in-process")
+    public OutboxPublisher inProcessOutboxPublisher(ApplicationEventPublisher eventPublisher) {
+        return new InProcessOutboxPublisher(eventPublisher);
+    }
+}
@@ -0,0 +1,24 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.outbox")
+public class OutboxProperties {
+
+    public enum Publisher { LOG, IN_PROCESS, CUSTOM }
+
+    // false stops both writing outbox rows and relaying them
+    private boolean enabled = true;
+    // rows claimed and published per relay transaction
+    private int batchSize = 100;
+    // delay between relay runs once the outbox has been drained
+    private Duration pollInterval = Duration.ofMillis(500);
+    // CUSTOM expects the application to declare its own OutboxPublisher bean
+    private Publisher publisher = Publisher.LOG;
+}
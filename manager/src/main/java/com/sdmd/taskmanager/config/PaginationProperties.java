@@ -0,0 +1,13 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.pagination")
+public class PaginationProperties {
+    private int defaultLimit = 100;
+    private int maxLimit = 1000;
+}
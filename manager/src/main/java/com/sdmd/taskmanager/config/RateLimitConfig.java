@@ -0,0 +1,28 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.ratelimit.LoadShedder;
+import com.sdmd.taskmanager.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Admission control. The filters themselves are not beans: they belong to the security filter
+ * chain ({@link SecurityConfig}), and a Filter bean would also be registered with the servlet container.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskmanager.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        return new RateLimiter(properties, registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "taskmanager.load-shedding", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LoadShedder loadShedder(LoadSheddingProperties properties, MeterRegistry registry) {
+        return new LoadShedder(properties, registry);
+    }
+}
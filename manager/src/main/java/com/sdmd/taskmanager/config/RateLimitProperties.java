@@ -0,0 +1,44 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-client token buckets: {@code requests} per {@code period}, with bursts of up to {@code burst}.
+ * The first entry of {@code endpoints} matching a request decides its limit, {@code defaults} the rest.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    private List<Endpoint> endpoints = new ArrayList<>();
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/**"));
+    // buckets unused this long are dropped; keep it above burst / rate, the time an empty bucket takes to refill
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maxClients = 100_000;
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int requests = 100;
+        private Duration period = Duration.ofSeconds(1);
+        private int burst = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint extends Limit {
+        // path pattern, e.g. /tasks/{id}
+        private String path;
+        // empty means every method
+        private List<String> methods = new ArrayList<>();
+    }
+}
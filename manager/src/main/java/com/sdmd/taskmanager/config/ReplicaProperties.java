@@ -0,0 +1,40 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for {@code @Transactional(readOnly = true)} work; writes always go to {@code spring.datasource}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.replicas")
+public class ReplicaProperties {
+
+    // false sends everything to spring.datasource
+    private boolean enabled = false;
+    private List<Instance> instances = new ArrayList<>();
+    // a replica further behind than this gets no reads until it catches up
+    private Duration maxLag = Duration.ofSeconds(2);
+    // lag in seconds: the Seconds_Behind_Source column if there is one, else the first column
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private Duration checkInterval = Duration.ofSeconds(5);
+    // after a client's own write, its reads stay on the primary this long
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Instance {
+        private String url;
+        // null means the spring.datasource username / password
+        private String username;
+        private String password;
+        // 0 means "same as the primary pool"
+        private int maximumPoolSize = 0;
+    }
+}
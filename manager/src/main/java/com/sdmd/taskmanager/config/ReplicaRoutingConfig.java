@@ -0,0 +1,99 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.replica.ReadYourWritesFilter;
+import com.sdmd.taskmanager.replica.ReplicaLagMonitor;
+import com.sdmd.taskmanager.replica.ReplicaRoutingDataSource;
+import com.sdmd.taskmanager.replica.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the application DataSource into a write side, the {@code spring.datasource} primary, and
+ * a read side, {@code taskmanager.replicas.instances}. {@link LazyConnectionDataSourceProxy} only
+ * takes a connection at the first statement, when the transaction's read-only flag is known:
+ * {@code @Transactional(readOnly = true)} work gets a replica connection, everything else
+ * (writes, and reads outside a read-only transaction) the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "taskmanager.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // Takes the place of the pool DataSourceAutoConfiguration would have built from the same properties
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaSet replicaSet(ReplicaProperties replicaProperties, DataSourceProperties primaryProperties,
+                                 @Qualifier("primaryDataSource") DataSource primary, ExecutionProperties executionProperties,
+                                 MeterRegistry registry, Environment environment) {
+        HikariDataSource primaryPool = DataSourceUnwrapper.unwrap(primary, HikariDataSource.class);
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (ReplicaProperties.Instance instance : replicaProperties.getInstances()) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(instance.getUrl())
+                    .username(instance.getUsername() != null ? instance.getUsername() : primaryProperties.determineUsername())
+                    .password(instance.getPassword() != null ? instance.getPassword() : primaryProperties.determinePassword())
+                    .build();
+            pool.setPoolName(name);
+            pool.setReadOnly(true);
+            int poolSize = instance.getMaximumPoolSize();
+            if (poolSize <= 0) {
+                poolSize = primaryPool != null ? primaryPool.getMaximumPoolSize() : 10;
+            }
+            pool.setMaximumPoolSize(poolSize);
+            // not beans, so the actuator does not bind hikaricp.* for them by itself
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            DataSource dataSource = Threading.VIRTUAL.isActive(environment)
+                    ? ExecutionConfig.bulkhead(pool, executionProperties) : pool;
+            replicas.add(new ReplicaSet.Replica(name, pool, dataSource));
+        }
+        return new ReplicaSet(replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaSet replicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaSet replicas, ReplicaProperties properties, MeterRegistry registry) {
+        return new ReplicaLagMonitor(replicas, properties, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+}
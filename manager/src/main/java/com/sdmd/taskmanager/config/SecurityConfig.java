@@ -1,12 +1,21 @@
 package com.sdmd.taskmanager.config;
 
+import com.sdmd.taskmanager.ratelimit.LoadShedder;
+import com.sdmd.taskmanager.ratelimit.LoadSheddingFilter;
+import com.sdmd.taskmanager.ratelimit.RateLimitFilter;
+import com.sdmd.taskmanager.ratelimit.RateLimiter;
+import com.sdmd.taskmanager.tenant.TenantFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.util.List;
 
@@ -14,7 +23,10 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectProvider<RateLimiter> rateLimiter,
+                                                   ObjectProvider<LoadShedder> loadShedder, TenancyProperties tenancy,
+                                                   @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver)
+            throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
@@ -24,6 +36,17 @@ public class SecurityConfig {
                 .formLogin(form -> form.disable())
                 .httpBasic(httpBasic -> httpBasic.disable());
 
+        // after CORS, so preflights pass and browsers can read the 429/503, and after authentication,
+        // so clients are limited per principal; a limited client is refused before it can count
+        // against the shared overload budget
+        rateLimiter.ifAvailable(limiter ->
+                http.addFilterAfter(new RateLimitFilter(limiter, exceptionResolver), AnonymousAuthenticationFilter.class));
+        loadShedder.ifAvailable(shedder ->
+                http.addFilterAfter(new LoadSheddingFilter(shedder, exceptionResolver), AnonymousAuthenticationFilter.class));
+        // after authentication too, as the principal decides which tenants the request may act for;
+        // everything behind it runs for the request's tenant
+        http.addFilterAfter(new TenantFilter(tenancy, exceptionResolver), AnonymousAuthenticationFilter.class);
+
         return http.build();
     }
 
@@ -32,8 +55,10 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
 
         config.setAllowedOrigins(List.of("*"));
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("ETag", "Link", "X-Next-Cursor", "Retry-After", "Idempotent-Replayed",
+                RateLimitFilter.LIMIT_HEADER, RateLimitFilter.REMAINING_HEADER));
         config.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
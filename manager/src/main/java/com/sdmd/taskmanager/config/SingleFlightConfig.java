@@ -0,0 +1,34 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.singleflight.Coalesced;
+import com.sdmd.taskmanager.singleflight.CoalescingInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Applies {@link CoalescingInterceptor} to {@link Coalesced} methods. It is ordered inside the cache
+ * advice, so only cache misses are coalesced, and outside the transaction advice, so callers waiting
+ * on another caller's flight hold no transaction or connection. A flight that began before a write
+ * does not reach the cache after it: cached loads are {@code sync}, so the write's put or evict
+ * waits for the flight and then replaces its result (see {@link CacheConfig}).
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public CoalescingInterceptor coalescingInterceptor() {
+        return new CoalescingInterceptor();
+    }
+
+    @Bean
+    public Advisor coalescingAdvisor(CoalescingInterceptor coalescingInterceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class), coalescingInterceptor);
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
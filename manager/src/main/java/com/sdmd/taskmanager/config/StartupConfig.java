@@ -0,0 +1,52 @@
+package com.sdmd.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Selective lazy initialization: beans from {@code taskmanager.startup.lazy-packages} (the OpenAPI
+ * UI and docs in the fast-start profile) are left out of startup and created by their first
+ * request. Unlike {@code spring.main.lazy-initialization} this keeps everything on the request
+ * path eager, so the first requests do not pay for it.
+ * <p>
+ * It edits bean definitions, so in AOT mode the packages in effect when {@code processAot} ran apply.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static BeanFactoryPostProcessor lazyPackagesPostProcessor(Environment environment) {
+        // too early for @ConfigurationProperties binding
+        List<String> packages = Binder.get(environment)
+                .bind("taskmanager.startup", StartupProperties.class)
+                .map(StartupProperties::getLazyPackages)
+                .orElse(List.of());
+        return beanFactory -> {
+            if (packages.isEmpty()) {
+                return;
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String declaredBy = declaringClass(definition);
+                if (declaredBy != null && packages.stream().anyMatch(p -> declaredBy.startsWith(p + "."))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // the @Bean method's class for factory-method beans, else the bean class
+    private static String declaringClass(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.startup")
+public class StartupProperties {
+
+    // beans declared by classes in these packages are only created when first used, e.g. org.springdoc
+    private List<String> lazyPackages = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.stats")
+public class StatsProperties {
+    // how often the counters are rebuilt from the database (also corrects writes made by other instances)
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+    // defines "today" and "this week"; keep it equal to the database session time zone
+    private ZoneId zone = ZoneId.of("UTC");
+}
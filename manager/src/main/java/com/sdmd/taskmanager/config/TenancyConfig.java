@@ -0,0 +1,68 @@
+package com.sdmd.taskmanager.config;
+
+import com.sdmd.taskmanager.tenant.TenantRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Multi-tenancy. Each request is bound to a tenant by the {@code TenantFilter} in the security
+ * chain; {@code hibernate.tenant_identifier_resolver} (in {@code spring.jpa.properties}) then makes
+ * Hibernate stamp and filter every {@code @TenantId} entity with it, and every tasks index leads
+ * with {@code tenant_id}, so a tenant's queries only ever touch its own index ranges.
+ * <p>
+ * When {@code taskmanager.tenancy.dedicated} lists tenants, the application DataSource is wrapped
+ * in a {@link TenantRoutingDataSource} that gives each of them a pool of its own; dedicated tenants
+ * always use the primary, also when read replicas are enabled.
+ */
+@Configuration
+public class TenancyConfig {
+
+    @Bean
+    static BeanPostProcessor tenantRoutingPostProcessor(ObjectProvider<TenancyProperties> tenancy,
+                                                        ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                                        ObjectProvider<ExecutionProperties> executionProperties,
+                                                        ObjectProvider<MeterRegistry> registry, Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // the DataSource JPA uses: the pool itself, or the replica routing proxy in front of it
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource shared)) {
+                    return bean;
+                }
+                Map<String, TenancyProperties.Dedicated> dedicated = tenancy.getObject().getDedicated();
+                if (dedicated.isEmpty()) {
+                    return bean;
+                }
+                boolean virtual = Threading.VIRTUAL.isActive(environment);
+                Map<String, DataSource> pools = new LinkedHashMap<>();
+                dedicated.forEach((tenantId, settings) -> {
+                    HikariDataSource pool = dataSourceProperties.getObject().initializeDataSourceBuilder()
+                            .type(HikariDataSource.class)
+                            .build();
+                    pool.setPoolName("tenant-" + tenantId);
+                    pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+                    registry.ifAvailable(meters -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters)));
+                    pools.put(tenantId, virtual ? ExecutionConfig.bulkhead(pool, executionProperties.getObject()) : pool);
+                });
+                // the bulkhead post-processor skips wrappers, so guard the shared pool here if it has not yet
+                if (virtual && !(shared instanceof DelegatingDataSource)) {
+                    shared = ExecutionConfig.bulkhead(shared, executionProperties.getObject());
+                }
+                return new TenantRoutingDataSource(shared, pools);
+            }
+        };
+    }
+}
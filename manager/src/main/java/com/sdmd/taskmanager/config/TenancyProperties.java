@@ -0,0 +1,43 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How requests are assigned to tenants, and which tenants get connection pools of their own.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.tenancy")
+public class TenancyProperties {
+
+    // picks the tenant; believed from an authenticated principal allowed to act for it, or when signed by the gateway
+    private String header = "X-Tenant-ID";
+    // a principal acts for the tenants named by its authorities with this prefix, e.g. TENANT_acme
+    private String authorityPrefix = "TENANT_";
+    // "<epoch seconds>.<hex HMAC-SHA256 of '<tenant>.<epoch seconds>' under gateway-secret>", set by the gateway
+    private String signatureHeader = "X-Tenant-Signature";
+    // shared with the gateway; unset, the header alone never picks a tenant
+    private String gatewaySecret;
+    // older signatures are refused, so one seen in transit cannot be replayed for long
+    private Duration signatureMaxAge = Duration.ofMinutes(5);
+    // single-tenant deployments only: tenant of requests with neither a principal nor the header; unset, they get 401
+    private String defaultTenant;
+    // served without a tenant (and so without reading tasks)
+    private List<String> excludedPaths = new ArrayList<>(List.of("/actuator/**"));
+    // by tenant id: large tenants whose connections come from their own pool instead of the shared one
+    private Map<String, Dedicated> dedicated = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Dedicated {
+        private int maximumPoolSize = 5;
+    }
+}
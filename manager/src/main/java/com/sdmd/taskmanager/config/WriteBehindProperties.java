@@ -0,0 +1,32 @@
+package com.sdmd.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "taskmanager.write-behind")
+public class WriteBehindProperties {
+
+    // true answers POST /tasks (without Idempotency-Key) with 202 and persists in the background
+    private boolean enabled = false;
+    // accepted tasks not yet written; beyond it POST /tasks answers 503
+    private int capacity = 10000;
+    // tasks per group commit, at most taskmanager.batch.max-items
+    private int maxBatchSize = 500;
+    // how long the writer waits for a partial batch to fill up
+    private Duration linger = Duration.ofMillis(5);
+    // Retry-After sent when the queue is full
+    private Duration retryAfter = Duration.ofSeconds(1);
+    // attempts per batch when the database cannot be reached at all
+    private int maxAttempts = 3;
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    // how long the outcome of a write can be looked up
+    private Duration statusTtl = Duration.ofHours(1);
+    private long maxStatuses = 100000;
+    // the queue is written out on shutdown, for at most this long
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
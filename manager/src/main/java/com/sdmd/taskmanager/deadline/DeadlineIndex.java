@@ -0,0 +1,87 @@
+package com.sdmd.taskmanager.deadline;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Time-ordered queue of the reminder and overdue firings that fall inside the loaded window.
+ * Rescheduling or closing a task does not search the heap: the task's current deadline is kept
+ * in a map and entries that no longer match it are dropped when they reach the head. Not thread
+ * safe; {@link TaskDeadlineScheduler} guards it.
+ */
+final class DeadlineIndex {
+
+    record Entry(Instant fireAt, TaskDeadlineEvent.Type type, long taskId, Instant deadline) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::fireAt)
+            .thenComparing(Entry::type)
+            .thenComparingLong(Entry::taskId);
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(ORDER);
+    private final Map<Long, Instant> deadlines = new HashMap<>();
+    private final Duration reminderLead;
+
+    DeadlineIndex(Duration reminderLead) {
+        this.reminderLead = reminderLead;
+    }
+
+    /**
+     * Queues the firings of {@code deadline} whose time falls in [{@code from}, {@code to}).
+     */
+    void schedule(long taskId, Instant deadline, Instant from, Instant to) {
+        Instant remindAt = deadline.minus(reminderLead);
+        boolean remind = !remindAt.isBefore(from) && remindAt.isBefore(to);
+        boolean overdue = !deadline.isBefore(from) && deadline.isBefore(to);
+        if (remind || overdue) {
+            deadlines.put(taskId, deadline);
+        }
+        if (remind) {
+            queue.add(new Entry(remindAt, TaskDeadlineEvent.Type.REMINDER, taskId, deadline));
+        }
+        if (overdue) {
+            queue.add(new Entry(deadline, TaskDeadlineEvent.Type.OVERDUE, taskId, deadline));
+        }
+    }
+
+    // The task became overdue while already past the fired watermark (deadline moved into the past, task reopened)
+    void overdueAt(long taskId, Instant deadline, Instant fireAt) {
+        deadlines.put(taskId, deadline);
+        queue.add(new Entry(fireAt, TaskDeadlineEvent.Type.OVERDUE, taskId, deadline));
+    }
+
+    void remove(long taskId) {
+        deadlines.remove(taskId);
+    }
+
+    /**
+     * Removes and returns up to {@code max} current entries due before {@code now}, earliest first.
+     */
+    List<Entry> pollDue(Instant now, int max) {
+        List<Entry> due = new ArrayList<>();
+        Entry previous = null;
+        while (due.size() < max && !queue.isEmpty() && queue.peek().fireAt().isBefore(now)) {
+            Entry entry = queue.poll();
+            if (!entry.deadline().equals(deadlines.get(entry.taskId())) || entry.equals(previous)) {
+                // rescheduled, completed or deleted since it was queued, or moved away and back again
+                continue;
+            }
+            previous = entry;
+            if (entry.type() == TaskDeadlineEvent.Type.OVERDUE) {
+                deadlines.remove(entry.taskId());
+            }
+            due.add(entry);
+        }
+        return due;
+    }
+
+    int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.sdmd.taskmanager.deadline;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link TaskDeadlineScheduler} on its own thread: {@code REMINDER} shortly before an
+ * open task's deadline, {@code OVERDUE} when the deadline passes. Delivery is at least once; an
+ * event may repeat after a restart.
+ */
+@Value
+public class TaskDeadlineEvent {
+
+    public enum Type { REMINDER, OVERDUE }
+
+    Type type;
+    Long taskId;
+    Instant deadline;
+}
@@ -0,0 +1,20 @@
+package com.sdmd.taskmanager.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Logs deadline events; TaskOverdueMarker acts on them, and further listeners can subscribe the same way
+@Slf4j
+@Component
+public class TaskDeadlineLogger {
+
+    @EventListener
+    public void onDeadline(TaskDeadlineEvent event) {
+        if (event.getType() == TaskDeadlineEvent.Type.OVERDUE) {
+            log.info("Task {} is overdue (deadline {})", event.getTaskId(), event.getDeadline());
+        } else {
+            log.info("Task {} is due at {}", event.getTaskId(), event.getDeadline());
+        }
+    }
+}
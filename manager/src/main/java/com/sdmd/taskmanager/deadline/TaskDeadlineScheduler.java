@@ -0,0 +1,233 @@
+package com.sdmd.taskmanager.deadline;
+
+import com.sdmd.taskmanager.config.DeadlineProperties;
+import com.sdmd.taskmanager.entity.TaskDeadlineWatermarkEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskDeadline;
+import com.sdmd.taskmanager.repository.TaskDeadlineWatermarkRepository;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires {@link TaskDeadlineEvent}s for open tasks.
+ * <p>
+ * Only a window of upcoming firings is kept in memory ({@code horizon} ahead of now), loaded
+ * with a range query on the deadline index and refilled as time moves on; committed task
+ * changes keep the window current. Everything due before the {@code fired_until} watermark has
+ * been fired; the watermark is persisted, so after a restart only the deadlines after it are
+ * read back. Due entries are taken from the queue in batches and published outside the lock,
+ * so thousands of tasks sharing one deadline do not hold up writers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.deadlines", name = "enabled", havingValue = "true")
+public class TaskDeadlineScheduler {
+
+    static final String WATERMARK = "default";
+    private static final List<String> OPEN_STATUSES =
+            List.of(Task.StatusEnum.PENDING.getValue(), Task.StatusEnum.IN_PROGRESS.getValue());
+
+    private final TaskRepository taskRepository;
+    private final TaskDeadlineWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeadlineProperties properties;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    // all guarded by lock
+    private final Object lock = new Object();
+    private final DeadlineIndex index;
+    private Instant firedUntil;
+    private Instant loadedUntil;
+    // non-null while a window is being read: latest deadline (null = closed) of tasks changed meanwhile
+    private Map<Long, Instant> changedDuringLoad = new HashMap<>();
+    private Instant watermarkFlushedAt = Instant.MIN;
+
+    @Autowired
+    public TaskDeadlineScheduler(TaskRepository taskRepository, TaskDeadlineWatermarkRepository watermarkRepository,
+                                 ApplicationEventPublisher eventPublisher, DeadlineProperties properties) {
+        this(taskRepository, watermarkRepository, eventPublisher, properties, Clock.systemUTC());
+    }
+
+    TaskDeadlineScheduler(TaskRepository taskRepository, TaskDeadlineWatermarkRepository watermarkRepository,
+                          ApplicationEventPublisher eventPublisher, DeadlineProperties properties, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.clock = clock;
+        this.index = new DeadlineIndex(properties.getReminderLead());
+    }
+
+    // not before the context is ready: the first run already queries the database
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-deadlines-"));
+        long tick = properties.getTick().toMillis();
+        scheduler.scheduleWithFixedDelay(this::tickQuietly, 0, tick, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Instant deadline = openDeadline(event.getTask());
+        Instant before = openDeadline(event.getPrevious());
+        if (deadline != null && deadline.equals(before)) {
+            // still open with the same deadline: nothing to reschedule
+            return;
+        }
+        long taskId = event.getTaskId();
+        synchronized (lock) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(taskId, deadline);
+            }
+            index.remove(taskId);
+            if (deadline != null && loadedUntil != null) {
+                schedule(taskId, deadline);
+            }
+        }
+    }
+
+    /**
+     * Loads the window when needed, then fires everything that is due.
+     */
+    void tick() {
+        Instant now = clock.instant();
+        if (loadedUntil == null) {
+            initialize(now);
+        }
+        if (loadedUntil.isBefore(now.plus(properties.getHorizon().dividedBy(2)))) {
+            load(now.plus(properties.getHorizon()));
+        }
+
+        List<DeadlineIndex.Entry> due;
+        int fired = 0;
+        do {
+            synchronized (lock) {
+                due = index.pollDue(now, properties.getFireBatchSize());
+            }
+            for (DeadlineIndex.Entry entry : due) {
+                fire(entry);
+            }
+            fired += due.size();
+        } while (due.size() == properties.getFireBatchSize());
+
+        synchronized (lock) {
+            firedUntil = now;
+        }
+        if (fired > 0 || !now.isBefore(watermarkFlushedAt.plus(properties.getWatermarkFlushInterval()))) {
+            flushWatermark(now);
+        }
+        if (fired > 0) {
+            log.debug("Fired {} deadline event(s), {} queued", fired, index.size());
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException ex) {
+            log.warn("Deadline scheduler tick failed", ex);
+        }
+    }
+
+    private void initialize(Instant now) {
+        Instant oldest = now.minus(properties.getMaxCatchUp());
+        // resume where the previous run stopped firing, but replay at most max-catch-up
+        Instant from = watermarkRepository.findById(WATERMARK)
+                .map(watermark -> watermark.getFiredUntil().isAfter(oldest) ? watermark.getFiredUntil() : oldest)
+                .orElse(now);
+        synchronized (lock) {
+            firedUntil = from;
+            loadedUntil = from;
+        }
+    }
+
+    // Extends the window to fire times before `until`
+    private void load(Instant until) {
+        Instant from;
+        synchronized (lock) {
+            from = loadedUntil;
+            if (changedDuringLoad == null) {
+                changedDuringLoad = new HashMap<>();
+            }
+        }
+        // the reminder for a deadline fires `reminderLead` earlier, so read that much further ahead
+        List<TaskDeadline> rows = taskRepository.findDeadlinesBetween(OPEN_STATUSES,
+                from.atOffset(ZoneOffset.UTC), until.plus(properties.getReminderLead()).atOffset(ZoneOffset.UTC));
+
+        synchronized (lock) {
+            for (TaskDeadline row : rows) {
+                if (!changedDuringLoad.containsKey(row.getId())) {
+                    index.schedule(row.getId(), row.getDeadline().toInstant(), from, until);
+                }
+            }
+            // what was read for these may already be stale; their latest state came with the event
+            changedDuringLoad.forEach((taskId, deadline) -> {
+                if (deadline != null) {
+                    index.schedule(taskId, deadline, from, until);
+                }
+            });
+            changedDuringLoad = null;
+            loadedUntil = until;
+        }
+        log.debug("Loaded {} deadline(s) up to {}", rows.size(), until);
+    }
+
+    private void schedule(long taskId, Instant deadline) {
+        index.schedule(taskId, deadline, firedUntil, loadedUntil);
+        if (deadline.isBefore(firedUntil)) {
+            // already past: overdue on the next tick, the reminder is moot
+            index.overdueAt(taskId, deadline, firedUntil);
+        }
+    }
+
+    private void fire(DeadlineIndex.Entry entry) {
+        try {
+            eventPublisher.publishEvent(new TaskDeadlineEvent(entry.type(), entry.taskId(), entry.deadline()));
+        } catch (RuntimeException ex) {
+            log.warn("Listener failed on {} for task {}", entry.type(), entry.taskId(), ex);
+        }
+    }
+
+    private void flushWatermark(Instant now) {
+        TaskDeadlineWatermarkEntity watermark = new TaskDeadlineWatermarkEntity();
+        watermark.setName(WATERMARK);
+        watermark.setFiredUntil(now);
+        watermarkRepository.save(watermark);
+        watermarkFlushedAt = now;
+    }
+
+    private static Instant openDeadline(Task task) {
+        if (task == null || task.getDeadline() == null || task.getStatus() == Task.StatusEnum.COMPLETED) {
+            return null;
+        }
+        return task.getDeadline().toInstant();
+    }
+}
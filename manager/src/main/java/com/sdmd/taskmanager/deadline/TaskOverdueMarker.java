@@ -0,0 +1,34 @@
+package com.sdmd.taskmanager.deadline;
+
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import com.sdmd.taskmanager.tenant.TenantIdentifierResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acts on {@code OVERDUE} events: flags the task through {@link TaskService#markOverdue}, as the
+ * task's own tenant. The flag is written like any other change, so the tenant's event stream
+ * clients receive it as an {@code updated} event and the cache, history and outbox follow.
+ * An event for a task completed or moved ahead in the meantime changes nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOverdueMarker {
+
+    private final TaskRepository taskRepository;
+    private final TaskService taskService;
+
+    @EventListener
+    public void onDeadline(TaskDeadlineEvent event) {
+        if (event.getType() != TaskDeadlineEvent.Type.OVERDUE) {
+            return;
+        }
+        // the scheduler works across tenants; read whose task it is
+        taskRepository.findTenantIdById(event.getTaskId()).ifPresent(tenantId ->
+                TenantContext.callAs(TenantIdentifierResolver.ROOT.equals(tenantId) ? null : tenantId,
+                        () -> taskService.markOverdue(event.getTaskId())));
+    }
+}
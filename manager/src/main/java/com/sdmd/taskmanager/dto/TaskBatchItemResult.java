@@ -0,0 +1,27 @@
+package com.sdmd.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskBatchItemResult {
+
+    public enum Outcome { CREATED, UPDATED, DELETED, FAILED }
+
+    // position of the item in the request body
+    private int index;
+    private Long id;
+    private Outcome outcome;
+    private String error;
+
+    public static TaskBatchItemResult success(int index, Long id, Outcome outcome) {
+        return new TaskBatchItemResult(index, id, outcome, null);
+    }
+
+    public static TaskBatchItemResult failure(int index, Long id, String error) {
+        return new TaskBatchItemResult(index, id, Outcome.FAILED, error);
+    }
+}
@@ -0,0 +1,28 @@
+package com.sdmd.taskmanager.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Getter
+public class TaskBatchResult {
+    private int succeeded;
+    private int failed;
+    private final List<TaskBatchItemResult> items = new ArrayList<>();
+
+    public void add(TaskBatchItemResult item) {
+        if (item.getOutcome() == TaskBatchItemResult.Outcome.FAILED) {
+            failed++;
+        } else {
+            succeeded++;
+        }
+        items.add(item);
+    }
+
+    public TaskBatchResult sorted() {
+        items.sort(Comparator.comparingInt(TaskBatchItemResult::getIndex));
+        return this;
+    }
+}
@@ -16,4 +16,10 @@ public class TaskCreateRequest {
     @NotNull
     private String description;
     private OffsetDateTime deadline;
+    // creates the task as a subtask of this one
+    private Long parentId;
+
+    public TaskCreateRequest(String title, String description, OffsetDateTime deadline) {
+        this(title, description, deadline, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for {@code GET /tasks} and {@code GET /tasks/search}. It holds the sort key
+ * of the last row of a page: the id, plus the deadline when the page is ordered by deadline or the
+ * relevance score for search results. Clients only ever see the
+ * encoded form, so the fields it carries can change without breaking them.
+ */
+@Value
+public class TaskCursor {
+    private static final String ID_PREFIX = "id:";
+    private static final String DEADLINE_PREFIX = "deadline:";
+    private static final String SCORE_PREFIX = "score:";
+
+    Long afterId;
+    // null unless the page was ordered by deadline
+    OffsetDateTime afterDeadline;
+    // null unless the cursor continues a search
+    Double afterScore;
+
+    public TaskCursor(Long afterId) {
+        this(afterId, null);
+    }
+
+    public TaskCursor(Long afterId, OffsetDateTime afterDeadline) {
+        this(afterId, afterDeadline, null);
+    }
+
+    private TaskCursor(Long afterId, OffsetDateTime afterDeadline, Double afterScore) {
+        this.afterId = afterId;
+        this.afterDeadline = afterDeadline;
+        this.afterScore = afterScore;
+    }
+
+    public static TaskCursor ofScore(Long id, double score) {
+        return new TaskCursor(id, null, score);
+    }
+
+    public static TaskCursor of(Long id, OffsetDateTime deadline, TaskSort sort) {
+        return sort.isByDeadline() ? new TaskCursor(id, deadline) : new TaskCursor(id);
+    }
+
+    public String encode() {
+        String raw;
+        if (afterScore != null) {
+            // Double.toString round-trips exactly, so the keyset comparison sees the same score
+            raw = SCORE_PREFIX + afterId + ":" + afterScore;
+        } else if (afterDeadline != null) {
+            raw = DEADLINE_PREFIX + afterId + ":" + afterDeadline.toInstant();
+        } else {
+            raw = ID_PREFIX + afterId;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (raw.startsWith(ID_PREFIX)) {
+                return new TaskCursor(Long.parseLong(raw.substring(ID_PREFIX.length())));
+            }
+            if (raw.startsWith(DEADLINE_PREFIX)) {
+                String[] parts = raw.substring(DEADLINE_PREFIX.length()).split(":", 2);
+                if (parts.length == 2) {
+                    OffsetDateTime deadline = Instant.parse(parts[1]).atOffset(ZoneOffset.UTC);
+                    return new TaskCursor(Long.parseLong(parts[0]), deadline);
+                }
+            }
+            if (raw.startsWith(SCORE_PREFIX)) {
+                String[] parts = raw.substring(SCORE_PREFIX.length()).split(":", 2);
+                if (parts.length == 2) {
+                    return ofScore(Long.parseLong(parts[0]), Double.parseDouble(parts[1]));
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            // fall through to the common error below
+        }
+        throw new InvalidQueryParameterException("after", token);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.model.TaskSummary;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Fields that {@code GET /tasks?fields=...} can select. They are the {@link TaskSummary}
+ * properties; the description is only available on the full task.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskField {
+    ID("id", summary -> summary.setId(null)),
+    TITLE("title", summary -> summary.setTitle(null)),
+    STATUS("status", summary -> summary.setStatus(null)),
+    DEADLINE("deadline", summary -> summary.setDeadline(null)),
+    VERSION("version", summary -> summary.setVersion(null));
+
+    private final String value;
+    private final Consumer<TaskSummary> clear;
+
+    public static Set<TaskField> fromValues(Collection<String> values) {
+        Set<TaskField> fields = EnumSet.noneOf(TaskField.class);
+        for (String value : values) {
+            fields.add(fromValue(value.trim()));
+        }
+        return fields;
+    }
+
+    public static TaskField fromValue(String value) {
+        for (TaskField field : values()) {
+            if (field.value.equals(value)) {
+                return field;
+            }
+        }
+        throw new InvalidQueryParameterException("fields", value);
+    }
+
+    /**
+     * A copy of {@code summary} without the properties that are not in {@code fields}, so they are
+     * left out of the JSON. The service may hand the same summaries to several callers, so they are
+     * not modified in place.
+     */
+    public static TaskSummary select(TaskSummary summary, Set<TaskField> fields) {
+        TaskSummary selected = new TaskSummary()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .status(summary.getStatus())
+                .deadline(summary.getDeadline())
+                .version(summary.getVersion());
+        for (TaskField field : values()) {
+            if (!fields.contains(field)) {
+                field.clear.accept(selected);
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sdmd.taskmanager.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class TaskHistoryEntry {
+    // the task's version after the change
+    private Long version;
+    private TaskChangedEvent.Type type;
+    private Instant changedAt;
+    // the fields that changed, with their new values; all of them for CREATED, none for DELETED
+    private JsonNode changes;
+}
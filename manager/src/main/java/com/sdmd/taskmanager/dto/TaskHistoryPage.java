@@ -0,0 +1,15 @@
+package com.sdmd.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskHistoryPage {
+    // newest first
+    private List<TaskHistoryEntry> items;
+    // the version to continue before; null when this is the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskPage {
+    private List<Task> items;
+    // null when this is the last page
+    private TaskCursor nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.model.Task;
+import lombok.*;
+import org.openapitools.jackson.nullable.JsonNullable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Body of {@code PATCH /tasks/{id}} (RFC 7396 JSON Merge Patch). A field left out stays as it
+ * is; a field sent is replaced. Every task field is required, so sending one as {@code null}
+ * (which removes it in merge-patch terms) is rejected.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskPatch {
+    private JsonNullable<String> title = JsonNullable.undefined();
+    private JsonNullable<String> description = JsonNullable.undefined();
+    private JsonNullable<Task.StatusEnum> status = JsonNullable.undefined();
+    private JsonNullable<OffsetDateTime> deadline = JsonNullable.undefined();
+    // like Task.version: when present the patch only applies to that version
+    private Long version;
+}
@@ -0,0 +1,27 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.model.Task.StatusEnum;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * Filters and ordering for {@code GET /tasks}. Null fields are not applied.
+ */
+@Value
+@Builder
+public class TaskQuery {
+    Set<StatusEnum> statuses;
+    // inclusive
+    OffsetDateTime deadlineFrom;
+    // exclusive
+    OffsetDateTime deadlineTo;
+    @Builder.Default
+    TaskSort sort = TaskSort.ID_ASC;
+
+    public static TaskQuery all() {
+        return TaskQuery.builder().build();
+    }
+}
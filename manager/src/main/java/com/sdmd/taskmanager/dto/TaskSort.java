@@ -0,0 +1,42 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orderings supported by {@code GET /tasks}. Every ordering ends with {@code id} so the
+ * keyset cursor always points at a unique row.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskSort {
+    ID_ASC("id", Sort.by(Sort.Order.asc("id"))),
+    ID_DESC("-id", Sort.by(Sort.Order.desc("id"))),
+    DEADLINE_ASC("deadline", Sort.by(Sort.Order.asc("deadline"), Sort.Order.asc("id"))),
+    DEADLINE_DESC("-deadline", Sort.by(Sort.Order.desc("deadline"), Sort.Order.desc("id")));
+
+    private final String value;
+    private final Sort sort;
+
+    public boolean isDescending() {
+        return this == ID_DESC || this == DEADLINE_DESC;
+    }
+
+    public boolean isByDeadline() {
+        return this == DEADLINE_ASC || this == DEADLINE_DESC;
+    }
+
+    public static TaskSort fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return ID_ASC;
+        }
+        for (TaskSort sort : values()) {
+            if (sort.value.equals(value)) {
+                return sort;
+            }
+        }
+        throw new InvalidQueryParameterException("sort", value);
+    }
+}
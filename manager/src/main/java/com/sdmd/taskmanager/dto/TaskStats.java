@@ -0,0 +1,25 @@
+package com.sdmd.taskmanager.dto;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Response of {@code GET /tasks/stats}. The deadline buckets only count open (not Completed)
+ * tasks: {@code overdue} is past its deadline, {@code dueToday} is due from now until the end of
+ * {@code today} and {@code dueThisWeek} from now through Sunday.
+ */
+@Value
+public class TaskStats {
+    long total;
+    // keyed by status value, e.g. "In_Progress"
+    Map<String, Long> byStatus;
+    long overdue;
+    long dueToday;
+    long dueThisWeek;
+    LocalDate today;
+    // null until the counters have been loaded once
+    Instant reconciledAt;
+}
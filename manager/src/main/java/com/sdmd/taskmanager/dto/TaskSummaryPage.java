@@ -0,0 +1,15 @@
+package com.sdmd.taskmanager.dto;
+
+import com.sdmd.taskmanager.model.TaskSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskSummaryPage {
+    private List<TaskSummary> items;
+    // null when this is the last page
+    private TaskCursor nextCursor;
+}
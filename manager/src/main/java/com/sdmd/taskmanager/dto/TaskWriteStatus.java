@@ -0,0 +1,34 @@
+package com.sdmd.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskWriteStatus {
+
+    public enum State { QUEUED, PERSISTED, FAILED }
+
+    private UUID trackingId;
+    private State state;
+    // set once PERSISTED
+    private Long taskId;
+    // set when FAILED
+    private String error;
+
+    public static TaskWriteStatus queued(UUID trackingId) {
+        return new TaskWriteStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static TaskWriteStatus persisted(UUID trackingId, Long taskId) {
+        return new TaskWriteStatus(trackingId, State.PERSISTED, taskId, null);
+    }
+
+    public static TaskWriteStatus failed(UUID trackingId, String error) {
+        return new TaskWriteStatus(trackingId, State.FAILED, null, error);
+    }
+}
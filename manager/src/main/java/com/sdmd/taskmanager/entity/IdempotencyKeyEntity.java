@@ -0,0 +1,34 @@
+package com.sdmd.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(name = "idempotency_key", length = 320)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(length = 2048)
+    private String url;
+
+    @Column(length = 64)
+    private String etag;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
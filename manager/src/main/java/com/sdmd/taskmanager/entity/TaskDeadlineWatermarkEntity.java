@@ -0,0 +1,19 @@
+package com.sdmd.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "task_deadline_watermark")
+@Data
+public class TaskDeadlineWatermarkEntity {
+
+    @Id
+    private String name;
+
+    // every reminder and overdue event due before this instant has been fired
+    @Column(name = "fired_until", nullable = false)
+    private Instant firedUntil;
+}
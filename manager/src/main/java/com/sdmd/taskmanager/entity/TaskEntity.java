@@ -3,18 +3,31 @@ package com.sdmd.taskmanager.entity;
 import com.sdmd.taskmanager.model.Task;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 
 import java.time.OffsetDateTime;
 
+// UPDATE statements only set the columns that changed, so a status flip does not rewrite the description
 @Entity
+@DynamicUpdate
 @Table(name = "tasks")
 @Data
 public class TaskEntity {
 
+    // Pooled table generator: ids are reserved 50 at a time, which lets Hibernate batch inserts
+    // (IDENTITY forces one INSERT round trip per row to read the generated key back)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_id")
+    @TableGenerator(name = "task_id", table = "task_id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "tasks", allocationSize = 50)
     private Long id;
 
+    // set from TenantContext on insert, and added to every query by Hibernate; see TenantIdentifierResolver
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @Column(nullable = false)
     private String title;
 
@@ -26,4 +39,25 @@ public class TaskEntity {
 
     @Column(nullable = false)
     private OffsetDateTime deadline = OffsetDateTime.now();
+
+    // a plain column rather than a @ManyToOne, so nothing is ever lazily loaded through it; trees
+    // are read with one recursive query (TaskRepository.findSubtree)
+    @Column(name = "parent_id", updatable = false)
+    private Long parentId;
+
+    // rollups over the direct subtasks, kept by TaskRollupMaintainer with relative UPDATEs; never
+    // written from the entity, so a stale copy cannot overwrite them
+    @Column(nullable = false, updatable = false)
+    private int subtaskCount;
+
+    @Column(nullable = false, updatable = false)
+    private int completedSubtaskCount;
+
+    // set by the deadline scheduler through TaskService.markOverdue, recomputed by every write
+    @Column(nullable = false)
+    private boolean overdue;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,51 @@
+package com.sdmd.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "task_history")
+@Data
+public class TaskHistoryEntity {
+
+    // Same pooled generator table as tasks, so a batch write's history rows are batched too
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_history_id")
+    @TableGenerator(name = "task_history_id", table = "task_id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "task_history", allocationSize = 50)
+    private Long id;
+
+    // the task's tenant, so one tenant cannot read another's history by task id
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    // the task's version after the change; one past the last one for DELETED
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "change_type", nullable = false)
+    private String changeType;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    // JSON of the fields that changed (all of them for CREATED)
+    @Lob
+    @Column(nullable = false)
+    private String changes;
+
+    // JSON of all the fields after the change, on every snapshot-interval-th update and on compacted rows
+    @Lob
+    private String snapshot;
+
+    // deltas since the last row that holds the full state; 0 on such rows
+    @Column(name = "deltas_since_snapshot", nullable = false)
+    private int deltasSinceSnapshot;
+}
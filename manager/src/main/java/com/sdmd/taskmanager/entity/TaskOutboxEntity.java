@@ -0,0 +1,32 @@
+package com.sdmd.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "task_outbox")
+@Data
+public class TaskOutboxEntity {
+
+    // Same pooled generator table as tasks, so a batch write's outbox rows are batched too
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_outbox_id")
+    @TableGenerator(name = "task_outbox_id", table = "task_id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "task_outbox", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
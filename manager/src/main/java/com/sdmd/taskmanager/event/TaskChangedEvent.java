@@ -0,0 +1,37 @@
+package com.sdmd.taskmanager.event;
+
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import lombok.Value;
+
+/**
+ * Published by the task service for every create, update and delete. Listeners that must see
+ * only committed changes use {@code @TransactionalEventListener}; listeners that must write in
+ * the same transaction as the change use a plain {@code @EventListener}.
+ */
+@Value
+public class TaskChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    Type type;
+    Long taskId;
+    // state after the change; null for DELETED
+    Task task;
+    // state before the change; null for CREATED
+    Task previous;
+    // the tenant the change was made for, null when made outside any tenant
+    String tenantId;
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(Type.CREATED, task.getId(), task, null, TenantContext.current());
+    }
+
+    public static TaskChangedEvent updated(Task previous, Task task) {
+        return new TaskChangedEvent(Type.UPDATED, task.getId(), task, previous, TenantContext.current());
+    }
+
+    public static TaskChangedEvent deleted(Task previous) {
+        return new TaskChangedEvent(Type.DELETED, previous.getId(), null, previous, TenantContext.current());
+    }
+}
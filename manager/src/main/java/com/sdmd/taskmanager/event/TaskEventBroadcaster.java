@@ -0,0 +1,202 @@
+package com.sdmd.taskmanager.event;
+
+import com.sdmd.taskmanager.config.EventStreamProperties;
+import com.sdmd.taskmanager.exception.TooManySubscribersException;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed task changes out to Server-Sent Events clients.
+ * <p>
+ * Every event goes into a ring buffer so a client reconnecting with {@code Last-Event-ID}
+ * receives what it missed. Each client has its own bounded queue drained by a small shared
+ * dispatcher pool; publishing never blocks on a client's socket. A client whose queue fills up
+ * is disconnected and resumes from the buffer on reconnect, and a client that fell behind the
+ * buffer, or brings an id this instance did not issue, gets a {@code reset} event telling it to
+ * reload with {@code GET /tasks}.
+ * <p>
+ * A client only receives the changes of the tenant it subscribed as.
+ */
+@Slf4j
+@Component
+public class TaskEventBroadcaster {
+
+    static final String RESET_EVENT = "reset";
+
+    private final EventStreamProperties properties;
+    private final TaskEventRingBuffer buffer;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeats;
+    private final Object lock = new Object();
+
+    public TaskEventBroadcaster(EventStreamProperties properties) {
+        this.properties = properties;
+        this.buffer = new TaskEventRingBuffer(properties.getBufferSize());
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatchThreads(),
+                new CustomizableThreadFactory("task-events-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-events-heartbeat-"));
+        long period = properties.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (lock) {
+            TaskEventRingBuffer.Entry entry = buffer.append(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        }
+    }
+
+    /**
+     * @param lastEventId the client's Last-Event-ID header, or null for a fresh subscription
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new TooManySubscribersException(properties.getMaxSubscribers());
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getTimeout().toMillis()),
+                TenantContext.current());
+        synchronized (lock) {
+            if (lastEventId != null) {
+                // only the subscriber's own tenant counts against its queue
+                Optional<List<TaskEventRingBuffer.Entry>> missed = parse(lastEventId)
+                        .flatMap(sequence -> buffer.after(sequence, subscriber::accepts));
+                if (missed.isEmpty() || missed.get().size() > properties.getSubscriberQueueSize()) {
+                    subscriber.reset = true;
+                } else {
+                    missed.get().forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(ex -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    private static Optional<Long> parse(String lastEventId) {
+        try {
+            return Optional.of(Long.parseLong(lastEventId.trim()));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // null outside a tenant: receives every tenant's changes
+        private final String tenantId;
+        private final Queue<TaskEventRingBuffer.Entry> queue = new ArrayBlockingQueue<>(properties.getSubscriberQueueSize());
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean pendingHeartbeat = new AtomicBoolean();
+        private volatile boolean reset;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String tenantId) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+        }
+
+        private void offer(TaskEventRingBuffer.Entry entry) {
+            if (closed || !accepts(entry.event())) {
+                return;
+            }
+            if (!queue.offer(entry)) {
+                // Too slow to keep up: drop it instead of buffering without bound.
+                // It can resume from the ring buffer with Last-Event-ID.
+                log.debug("Disconnecting slow event stream subscriber");
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        private boolean accepts(TaskChangedEvent event) {
+            return tenantId == null || tenantId.equals(event.getTenantId());
+        }
+
+        private void heartbeat() {
+            pendingHeartbeat.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (reset) {
+                    reset = false;
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                }
+                TaskEventRingBuffer.Entry entry;
+                while (!closed && (entry = queue.poll()) != null) {
+                    TaskChangedEvent event = entry.event();
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(entry.sequence()))
+                            .name(event.getType().name().toLowerCase())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (pendingHeartbeat.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // client went away or the emitter already completed
+                closed = true;
+                subscribers.remove(this);
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed && (!queue.isEmpty() || pendingHeartbeat.get())) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+}
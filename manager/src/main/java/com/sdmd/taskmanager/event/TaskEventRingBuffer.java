@@ -0,0 +1,64 @@
+package com.sdmd.taskmanager.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Fixed-size history of the most recent events, numbered with a gap-free sequence so a
+ * reconnecting client can ask for "everything after N". Not thread-safe; the broadcaster
+ * guards it with its own lock.
+ */
+class TaskEventRingBuffer {
+
+    record Entry(long sequence, TaskChangedEvent event) {
+    }
+
+    private final Entry[] entries;
+    private long nextSequence = 1;
+
+    TaskEventRingBuffer(int capacity) {
+        this.entries = new Entry[capacity];
+    }
+
+    Entry append(TaskChangedEvent event) {
+        Entry entry = new Entry(nextSequence++, event);
+        entries[(int) (entry.sequence() % entries.length)] = entry;
+        return entry;
+    }
+
+    long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Events after {@code sequence}, oldest first, or empty if some of them have already
+     * been overwritten and the caller can no longer catch up from the buffer alone. A
+     * sequence ahead of the buffer is a gap too: it was issued by another instance, or by
+     * this one before a restart, and says nothing about which of our events the caller has.
+     */
+    Optional<List<Entry>> after(long sequence) {
+        return after(sequence, event -> true);
+    }
+
+    // as after(long), keeping only the events the filter accepts
+    Optional<List<Entry>> after(long sequence, Predicate<TaskChangedEvent> filter) {
+        long last = lastSequence();
+        if (sequence == last) {
+            return Optional.of(List.of());
+        }
+        long oldest = Math.max(1, last - entries.length + 1);
+        if (sequence + 1 < oldest || sequence < 0 || sequence > last) {
+            return Optional.empty();
+        }
+        List<Entry> missed = new ArrayList<>();
+        for (long s = sequence + 1; s <= last; s++) {
+            Entry entry = entries[(int) (s % entries.length)];
+            if (filter.test(entry.event())) {
+                missed.add(entry);
+            }
+        }
+        return Optional.of(missed);
+    }
+}
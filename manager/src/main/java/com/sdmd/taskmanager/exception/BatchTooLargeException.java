@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(int size, int maxItems) {
+        super("Batch of " + size + " items exceeds the limit of " + maxItems + ".");
+    }
+}
@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with idempotency key '" + key + "' is still being processed.");
+    }
+}
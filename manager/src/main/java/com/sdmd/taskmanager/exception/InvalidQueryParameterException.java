@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class InvalidQueryParameterException extends RuntimeException {
+    public InvalidQueryParameterException(String parameter, String value) {
+        super("Invalid value '" + value + "' for parameter '" + parameter + "'.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class InvalidTaskPatchException extends RuntimeException {
+    public InvalidTaskPatchException(String field) {
+        super("Field '" + field + "' cannot be removed or set to null.");
+    }
+}
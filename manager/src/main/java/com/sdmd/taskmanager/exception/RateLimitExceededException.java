@@ -0,0 +1,21 @@
+package com.sdmd.taskmanager.exception;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        this(RetryAfter.seconds(retryAfter));
+    }
+
+    private RateLimitExceededException(long retryAfterSeconds) {
+        super("Rate limit exceeded, retry in " + retryAfterSeconds + " second(s).");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
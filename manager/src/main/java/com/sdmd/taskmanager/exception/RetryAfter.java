@@ -0,0 +1,14 @@
+package com.sdmd.taskmanager.exception;
+
+import java.time.Duration;
+
+final class RetryAfter {
+
+    private RetryAfter() {
+    }
+
+    // Retry-After is whole seconds; round up so a client that honours it is not refused again
+    static long seconds(Duration duration) {
+        return Math.max(1, (duration.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sdmd.taskmanager.exception;
+
+import java.time.Duration;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(Duration retryAfter) {
+        this(RetryAfter.seconds(retryAfter));
+    }
+
+    private ServiceOverloadedException(long retryAfterSeconds) {
+        super("The service is overloaded, retry in " + retryAfterSeconds + " second(s).");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
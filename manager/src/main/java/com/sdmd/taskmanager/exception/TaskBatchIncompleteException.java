@@ -0,0 +1,21 @@
+package com.sdmd.taskmanager.exception;
+
+import com.sdmd.taskmanager.dto.TaskBatchResult;
+
+/**
+ * A batch failed after some of its chunks had committed. {@link #getSettled()} holds the outcome of
+ * every item that was written or rejected before the failure, so a retry can skip them.
+ */
+public class TaskBatchIncompleteException extends RuntimeException {
+
+    private final TaskBatchResult settled;
+
+    public TaskBatchIncompleteException(TaskBatchResult settled, RuntimeException cause) {
+        super("Batch failed after " + settled.getItems().size() + " item(s) were settled: " + cause.getMessage(), cause);
+        this.settled = settled;
+    }
+
+    public TaskBatchResult getSettled() {
+        return settled;
+    }
+}
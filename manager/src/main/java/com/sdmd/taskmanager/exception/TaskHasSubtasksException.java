@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class TaskHasSubtasksException extends RuntimeException {
+    public TaskHasSubtasksException(Long id, int subtasks) {
+        super("Task with id " + id + " has " + subtasks + " subtask(s); delete them first.");
+    }
+}
@@ -0,0 +1,9 @@
+package com.sdmd.taskmanager.exception;
+
+import java.time.OffsetDateTime;
+
+public class TaskHistoryNotFoundException extends RuntimeException {
+    public TaskHistoryNotFoundException(Long id, OffsetDateTime asOf) {
+        super("Task with id " + id + " did not exist at " + asOf + ", or its history from then is not kept.");
+    }
+}
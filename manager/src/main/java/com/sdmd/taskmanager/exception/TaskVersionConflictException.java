@@ -0,0 +1,11 @@
+package com.sdmd.taskmanager.exception;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException(Long id, Long expectedVersion, Long actualVersion) {
+        super("Task with id " + id + " is at version " + actualVersion + ", not " + expectedVersion + ".");
+    }
+
+    public TaskVersionConflictException(Long id, String ifMatch) {
+        super("Task with id " + id + " does not match If-Match " + ifMatch + ".");
+    }
+}
@@ -0,0 +1,9 @@
+package com.sdmd.taskmanager.exception;
+
+import java.util.UUID;
+
+public class TaskWriteNotFoundException extends RuntimeException {
+    public TaskWriteNotFoundException(UUID trackingId) {
+        super("No task write with tracking id " + trackingId + " (unknown, or its status has expired).");
+    }
+}
@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class TenantAccessDeniedException extends RuntimeException {
+    public TenantAccessDeniedException(String tenantId) {
+        super(tenantId != null ? "Not allowed to act for tenant '" + tenantId + "'." : "Not allowed to act for any tenant.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class TenantNotAuthenticatedException extends RuntimeException {
+    public TenantNotAuthenticatedException() {
+        super("The request does not prove which tenant it belongs to.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.exception;
+
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(int maxSubscribers) {
+        super("The event stream already has " + maxSubscribers + " subscribers.");
+    }
+}
@@ -0,0 +1,101 @@
+package com.sdmd.taskmanager.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdmd.taskmanager.entity.TaskHistoryEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The recorded fields of a task and their JSON form. Keys are the {@link Task} property names, so a
+ * delta is applied by reading it into the task being rebuilt; version and rollup counts are not
+ * history (a parent's version also moves with its subtasks).
+ */
+final class TaskHistoryCodec {
+
+    private static final Map<String, Function<Task, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("title", Task::getTitle);
+        FIELDS.put("description", Task::getDescription);
+        FIELDS.put("status", Task::getStatus);
+        FIELDS.put("deadline", Task::getDeadline);
+        FIELDS.put("parentId", Task::getParentId);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    TaskHistoryCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    Map<String, Object> state(Task task) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        FIELDS.forEach((name, field) -> state.put(name, field.apply(task)));
+        return state;
+    }
+
+    // only what changed, so an edit of the title does not store another copy of the description
+    Map<String, Object> diff(Task before, Task after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        FIELDS.forEach((name, field) -> {
+            Object old = field.apply(before);
+            Object now = field.apply(after);
+            if (!same(old, now)) {
+                changes.put(name, now);
+            }
+        });
+        return changes;
+    }
+
+    // the same instant sent with another offset is not a change
+    private static boolean same(Object old, Object now) {
+        if (old instanceof OffsetDateTime a && now instanceof OffsetDateTime b) {
+            return a.isEqual(b);
+        }
+        return Objects.equals(old, now);
+    }
+
+    String toJson(Map<String, Object> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize task history fields " + fields.keySet(), ex);
+        }
+    }
+
+    // where a replay can start: the creation, a periodic snapshot or a compacted row
+    static boolean holdsState(TaskHistoryEntity row) {
+        return row.getSnapshot() != null || TaskChangedEvent.Type.CREATED.name().equals(row.getChangeType());
+    }
+
+    /**
+     * Rebuilds the task from rows in version order, the first of them holding a full state.
+     *
+     * @return the task after the last row, or null if it ends with the task's deletion
+     */
+    Task replay(List<TaskHistoryEntity> rows) {
+        Task task = new Task();
+        for (TaskHistoryEntity row : rows) {
+            if (TaskChangedEvent.Type.DELETED.name().equals(row.getChangeType())) {
+                return null;
+            }
+            String fields = row.getSnapshot() != null ? row.getSnapshot() : row.getChanges();
+            try {
+                objectMapper.readerForUpdating(task).readValue(fields);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Unreadable history row " + row.getId() + " of task " + row.getTaskId(), ex);
+            }
+            task.setId(row.getTaskId());
+            task.setVersion(row.getVersion());
+        }
+        return task;
+    }
+}
@@ -0,0 +1,137 @@
+package com.sdmd.taskmanager.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdmd.taskmanager.config.HistoryProperties;
+import com.sdmd.taskmanager.entity.TaskHistoryEntity;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@code retention} to the history table on a background thread. The whole history of a
+ * task deleted before the cutoff is purged; for every other task the rows before the cutoff are
+ * folded into the last of them, which keeps its own changes and gets the full state as its
+ * snapshot. The states in between are gone: a read as of a time before the cutoff returns the
+ * state of that row, or 404 before it. The table grows with the recent changes and the number of
+ * tasks only.
+ * <p>
+ * Folding starts at the first row holding a full state. Deltas before it (a task changed before
+ * history was enabled) cannot be replayed and are dropped; if there is no such row the last delta
+ * is kept as it is, never given a snapshot of fields it does not know.
+ * Works in transactions of {@code compaction-batch-size} tasks.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.history", name = "enabled", matchIfMissing = true)
+public class TaskHistoryCompactor {
+
+    private final TaskHistoryRepository historyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HistoryProperties properties;
+    private final TaskHistoryCodec codec;
+    private final ScheduledExecutorService scheduler;
+
+    public TaskHistoryCompactor(TaskHistoryRepository historyRepository, TransactionTemplate transactionTemplate,
+                                HistoryProperties properties, ObjectMapper objectMapper) {
+        this.historyRepository = historyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.codec = new TaskHistoryCodec(objectMapper);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-history-"));
+    }
+
+    // not before the context is ready, so compaction never runs against half-initialized beans
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        long period = properties.getCompactionInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> compact(Instant.now().minus(properties.getRetention())),
+                period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Purges and folds the history recorded before {@code cutoff}.
+     *
+     * @return the number of rows deleted
+     */
+    public int compact(Instant cutoff) {
+        int total = 0;
+        try {
+            int batchSize = properties.getCompactionBatchSize();
+            int[] batch;
+            do {
+                batch = transactionTemplate.execute(status -> purgeBatch(cutoff));
+                total += batch[1];
+            } while (batch[0] == batchSize);
+            do {
+                batch = transactionTemplate.execute(status -> compactBatch(cutoff));
+                total += batch[1];
+            } while (batch[0] == batchSize);
+        } catch (RuntimeException ex) {
+            log.warn("History compaction failed after deleting {} row(s); retrying in {}",
+                    total, properties.getCompactionInterval(), ex);
+        }
+        return total;
+    }
+
+    // {tasks, rows deleted}
+    private int[] purgeBatch(Instant cutoff) {
+        List<Long> taskIds = historyRepository.findTaskIdsDeletedBefore(cutoff, Limit.of(properties.getCompactionBatchSize()));
+        if (taskIds.isEmpty()) {
+            return new int[2];
+        }
+        return new int[] {taskIds.size(), historyRepository.deleteByTaskIds(taskIds)};
+    }
+
+    private int[] compactBatch(Instant cutoff) {
+        List<Long> taskIds = historyRepository.findCompactableTaskIds(cutoff, Limit.of(properties.getCompactionBatchSize()));
+        if (taskIds.isEmpty()) {
+            return new int[2];
+        }
+        Map<Long, List<TaskHistoryEntity>> byTask = new LinkedHashMap<>();
+        for (TaskHistoryEntity row : historyRepository.findByTaskIdInAndChangedAtBeforeOrderByTaskIdAscVersionAsc(taskIds, cutoff)) {
+            byTask.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>()).add(row);
+        }
+
+        List<TaskHistoryEntity> folded = new ArrayList<>();
+        byTask.forEach((taskId, rows) -> {
+            int start = 0;
+            while (start < rows.size() && !TaskHistoryCodec.holdsState(rows.get(start))) {
+                start++;
+            }
+            if (start < rows.size()) {
+                Task state = codec.replay(rows.subList(start, rows.size()));
+                if (state == null) {
+                    // deleted after the purge above; the next run purges it
+                    return;
+                }
+                rows.get(rows.size() - 1).setSnapshot(codec.toJson(codec.state(state)));
+                rows.get(rows.size() - 1).setDeltasSinceSnapshot(0);
+            }
+            folded.addAll(rows.subList(0, rows.size() - 1));
+        });
+        historyRepository.deleteAllInBatch(folded);
+        return new int[] {taskIds.size(), folded.size()};
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.sdmd.taskmanager.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskHistoryEntry;
+import com.sdmd.taskmanager.dto.TaskHistoryPage;
+import com.sdmd.taskmanager.entity.TaskHistoryEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.exception.TaskHistoryNotFoundException;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskHistoryRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Reads the recorded history of a task: its changes page by page, newest first, and its state at
+ * a point in time, rebuilt from the last full state at or before that time plus the deltas after
+ * it (fewer than {@code snapshot-interval} of them). Available while recording is switched off.
+ */
+@Component
+public class TaskHistoryReader {
+
+    private final TaskHistoryRepository historyRepository;
+    private final PaginationProperties paginationProperties;
+    private final ObjectMapper objectMapper;
+    private final TaskHistoryCodec codec;
+
+    public TaskHistoryReader(TaskHistoryRepository historyRepository, PaginationProperties paginationProperties,
+                             ObjectMapper objectMapper) {
+        this.historyRepository = historyRepository;
+        this.paginationProperties = paginationProperties;
+        this.objectMapper = objectMapper;
+        this.codec = new TaskHistoryCodec(objectMapper);
+    }
+
+    /**
+     * @param before only changes to versions below this one (the previous page's cursor); null for the newest
+     */
+    @Transactional(readOnly = true)
+    public TaskHistoryPage getHistory(Long taskId, Long before, Integer limit) {
+        int pageSize = resolveLimit(limit);
+        // one extra row tells whether there is a next page
+        List<TaskHistoryEntity> rows = historyRepository.findByTaskIdAndVersionLessThanOrderByVersionDesc(
+                taskId, before != null ? before : Long.MAX_VALUE, Limit.of(pageSize + 1));
+        List<TaskHistoryEntry> items = rows.stream().limit(pageSize).map(this::toEntry).toList();
+        Long next = rows.size() > pageSize ? items.get(items.size() - 1).getVersion() : null;
+        return new TaskHistoryPage(items, next);
+    }
+
+    /**
+     * @throws TaskHistoryNotFoundException if the task did not exist at that time (not created yet,
+     * already deleted) or its history from then was not recorded or has been purged
+     */
+    @Transactional(readOnly = true)
+    public Task getTaskAsOf(Long taskId, OffsetDateTime asOf) {
+        List<TaskHistoryEntity> rows = historyRepository.findReplayAsOf(taskId, asOf.toInstant());
+        Task task = rows.isEmpty() ? null : codec.replay(rows);
+        if (task == null) {
+            throw new TaskHistoryNotFoundException(taskId, asOf);
+        }
+        return task;
+    }
+
+    private TaskHistoryEntry toEntry(TaskHistoryEntity row) {
+        try {
+            return new TaskHistoryEntry(row.getVersion(), TaskChangedEvent.Type.valueOf(row.getChangeType()),
+                    row.getChangedAt(), objectMapper.readTree(row.getChanges()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable history row " + row.getId() + " of task " + row.getTaskId(), ex);
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return paginationProperties.getDefaultLimit();
+        }
+        if (limit < 1) {
+            throw new InvalidQueryParameterException("limit", String.valueOf(limit));
+        }
+        return Math.min(limit, paginationProperties.getMaxLimit());
+    }
+}
@@ -0,0 +1,77 @@
+package com.sdmd.taskmanager.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdmd.taskmanager.config.HistoryProperties;
+import com.sdmd.taskmanager.entity.TaskHistoryEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskHistoryRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Appends a history row for every task change, inside the service's transaction like the outbox
+ * writer, so the row commits or rolls back with the change. Updates store only the fields that
+ * changed; every {@code snapshot-interval}-th update since the last full state, counted on the
+ * task's latest row, the row also carries the full state, which bounds how many deltas a
+ * time-travel read replays. Versions are not counted, as rollup changes on a parent bump them
+ * without a row. So does the first row of a task changed before history was enabled: a delta alone
+ * has nothing to replay on.
+ */
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.history", name = "enabled", matchIfMissing = true)
+public class TaskHistoryWriter {
+
+    private final TaskHistoryRepository historyRepository;
+    private final HistoryProperties properties;
+    private final TaskHistoryCodec codec;
+
+    public TaskHistoryWriter(TaskHistoryRepository historyRepository, HistoryProperties properties, ObjectMapper objectMapper) {
+        this.historyRepository = historyRepository;
+        this.properties = properties;
+        this.codec = new TaskHistoryCodec(objectMapper);
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskHistoryEntity row = new TaskHistoryEntity();
+        row.setTaskId(event.getTaskId());
+        row.setChangeType(event.getType().name());
+        row.setChangedAt(Instant.now());
+
+        switch (event.getType()) {
+            case CREATED -> {
+                row.setVersion(event.getTask().getVersion());
+                row.setChanges(codec.toJson(codec.state(event.getTask())));
+            }
+            case UPDATED -> {
+                Task before = event.getPrevious();
+                Task after = event.getTask();
+                Map<String, Object> changes = codec.diff(before, after);
+                if (changes.isEmpty()) {
+                    // e.g. a PUT of identical values
+                    return;
+                }
+                row.setVersion(after.getVersion());
+                row.setChanges(codec.toJson(changes));
+                int deltas = historyRepository.findFirstByTaskIdOrderByVersionDesc(event.getTaskId())
+                        .map(latest -> latest.getDeltasSinceSnapshot() + 1)
+                        .orElse(properties.getSnapshotInterval());
+                if (deltas >= properties.getSnapshotInterval()) {
+                    row.setSnapshot(codec.toJson(codec.state(after)));
+                } else {
+                    row.setDeltasSinceSnapshot(deltas);
+                }
+            }
+            case DELETED -> {
+                row.setVersion(event.getPrevious().getVersion() + 1);
+                row.setChanges("{}");
+            }
+        }
+        historyRepository.save(row);
+    }
+}
@@ -0,0 +1,131 @@
+package com.sdmd.taskmanager.idempotency;
+
+import com.sdmd.taskmanager.config.IdempotencyProperties;
+import com.sdmd.taskmanager.exception.IdempotencyKeyInProgressException;
+import com.sdmd.taskmanager.repository.IdempotencyKeyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps responses in the {@code idempotency_keys} table, shared by every instance. Rows older than
+ * the TTL are ignored on read and deleted every {@code purge-interval}.
+ * <p>
+ * A key is claimed by inserting a {@link #PENDING} row, committed before the request runs: the
+ * primary key lets only one instance hold it, and the others see it in progress. The response then
+ * replaces the pending row in the transaction that creates the task. A claim older than
+ * {@code in-flight-timeout} belongs to a request that died with its instance, and is taken over.
+ */
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    // status of a claimed key whose request has not answered yet
+    static final int PENDING = 0;
+
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    // when each key held by this instance was claimed; completing or releasing it checks the claim is still ours
+    private final ConcurrentMap<String, Instant> claims = new ConcurrentHashMap<>();
+
+    public DatabaseIdempotencyStore(IdempotencyKeyRepository repository, IdempotencyProperties properties) {
+        this(repository, properties, Clock.systemUTC());
+    }
+
+    DatabaseIdempotencyStore(IdempotencyKeyRepository repository, IdempotencyProperties properties, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-idempotency-"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        long period = properties.getPurgeInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        Instant oldest = clock.instant().minus(properties.getTtl());
+        return repository.findById(key)
+                .filter(entity -> entity.getStatus() != PENDING && entity.getCreatedAt().isAfter(oldest))
+                .map(entity -> new IdempotentResponse(entity.getFingerprint(), entity.getStatus(), entity.getTaskId(),
+                        entity.getUrl(), entity.getEtag()));
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        // the column keeps microseconds, and the claim is matched on it later
+        Instant now = clock.instant().truncatedTo(ChronoUnit.MICROS);
+        repository.deleteStale(key, now.minus(properties.getTtl()), PENDING, now.minus(properties.getInFlightTimeout()));
+        try {
+            repository.insert(key, fingerprint, PENDING, now);
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+        claims.put(key, now);
+        return true;
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        Instant claimedAt = claims.get(key);
+        if (claimedAt == null || repository.complete(key, claimedAt, PENDING, response.status(), response.id(),
+                response.url(), response.etag()) == 0) {
+            // taken over after in-flight-timeout: the request is undone rather than run twice
+            throw new IdempotencyKeyInProgressException(key);
+        }
+        // on a rollback the claim stays ours until release
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                claims.remove(key, claimedAt);
+            }
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        Instant claimedAt = claims.remove(key);
+        if (claimedAt != null) {
+            repository.deleteClaim(key, claimedAt, PENDING);
+        }
+    }
+
+    public int purge() {
+        return repository.deleteCreatedBefore(clock.instant().minus(properties.getTtl()));
+    }
+
+    private void purgeQuietly() {
+        try {
+            int deleted = purge();
+            if (deleted > 0) {
+                log.debug("Purged {} expired idempotency keys", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Idempotency key purge failed", ex);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sdmd.taskmanager.idempotency;
+
+import com.sdmd.taskmanager.config.IdempotencyProperties;
+import com.sdmd.taskmanager.exception.IdempotencyKeyInProgressException;
+import com.sdmd.taskmanager.exception.IdempotencyKeyReusedException;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import com.sdmd.taskmanager.tenant.TenantIdentifierResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key. A key already in the store is answered from it;
+ * a key whose first request is still running makes the retry wait for that result instead of
+ * racing it. If the first request fails nothing is stored, and the next waiter runs it itself.
+ * <p>
+ * In-flight requests are only coalesced within one instance. Across instances the store's claim
+ * decides: the request runs only once the key is claimed, and a retry that finds it claimed elsewhere
+ * gets 409. The response is stored in the transaction that runs the request, so a crash cannot keep
+ * one without the other.
+ * <p>
+ * Keys are scoped by tenant, so two tenants may use the same key without seeing each other's
+ * responses.
+ */
+@Slf4j
+public class IdempotencyCoordinator {
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    // completed with the response, or with null when the request failed
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyCoordinator(IdempotencyStore store, IdempotencyProperties properties,
+                                  TransactionTemplate transactionTemplate) {
+        this.store = store;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public Execution execute(String key, String fingerprint, Supplier<IdempotentResponse> action) {
+        String scoped = scoped(key);
+        while (true) {
+            Optional<IdempotentResponse> stored = store.find(scoped);
+            if (stored.isPresent()) {
+                return replay(key, fingerprint, stored.get());
+            }
+            CompletableFuture<IdempotentResponse> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(scoped, mine);
+            if (running != null) {
+                IdempotentResponse response = await(key, running);
+                if (response != null) {
+                    return replay(key, fingerprint, response);
+                }
+                continue;
+            }
+            IdempotentResponse response = null;
+            try {
+                if (!store.claim(scoped, fingerprint)) {
+                    // answered between our lookup and the claim, or still running on another instance
+                    stored = store.find(scoped);
+                    if (stored.isPresent()) {
+                        response = stored.get();
+                        return replay(key, fingerprint, response);
+                    }
+                    throw new IdempotencyKeyInProgressException(key);
+                }
+                response = run(scoped, action);
+                return new Execution(response, false);
+            } finally {
+                inFlight.remove(scoped, mine);
+                mine.complete(response);
+            }
+        }
+    }
+
+    // "*" outside a tenant cannot clash: tenant ids never contain it
+    private static String scoped(String key) {
+        String tenantId = TenantContext.current();
+        return (tenantId != null ? tenantId : TenantIdentifierResolver.ROOT) + "/" + key;
+    }
+
+    private IdempotentResponse await(String key, CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException ex) {
+            // never completed exceptionally
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private IdempotentResponse run(String key, Supplier<IdempotentResponse> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                IdempotentResponse response = action.get();
+                store.complete(key, response);
+                return response;
+            });
+        } catch (RuntimeException ex) {
+            release(key);
+            throw ex;
+        }
+    }
+
+    private void release(String key) {
+        try {
+            store.release(key);
+        } catch (RuntimeException ex) {
+            // the claim lapses after in-flight-timeout instead
+            log.warn("Could not release idempotency key {}", key, ex);
+        }
+    }
+
+    private static Execution replay(String key, String fingerprint, IdempotentResponse response) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return new Execution(response, true);
+    }
+
+    public record Execution(IdempotentResponse response, boolean replayed) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.sdmd.taskmanager.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Completed responses by Idempotency-Key; entries expire after {@code taskmanager.idempotency.ttl}.
+ * A key is claimed before its request runs, so that only one request holds it at a time.
+ */
+public interface IdempotencyStore {
+
+    Optional<IdempotentResponse> find(String key);
+
+    // false when the key already has a response or another request holds it
+    boolean claim(String key, String fingerprint);
+
+    // runs in the transaction of the request that claimed the key, and only takes effect if it commits
+    void complete(String key, IdempotentResponse response);
+
+    // gives up a claim whose request failed, so that a retry can run it
+    void release(String key);
+}
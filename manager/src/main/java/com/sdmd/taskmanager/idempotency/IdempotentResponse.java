@@ -0,0 +1,8 @@
+package com.sdmd.taskmanager.idempotency;
+
+/**
+ * What {@code POST /tasks} answered the first time a key was used, plus a fingerprint of the
+ * request body so that the key cannot be reused for a different task.
+ */
+public record IdempotentResponse(String fingerprint, int status, Long id, String url, String etag) {
+}
@@ -0,0 +1,65 @@
+package com.sdmd.taskmanager.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdmd.taskmanager.config.IdempotencyProperties;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotentResponse> responses;
+    private final Set<String> claims = ConcurrentHashMap.newKeySet();
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaxKeys())
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return Optional.ofNullable(responses.getIfPresent(key));
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        if (!claims.add(key)) {
+            return false;
+        }
+        if (responses.getIfPresent(key) != null) {
+            claims.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(key, response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store(key, response);
+            }
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        claims.remove(key);
+    }
+
+    private void store(String key, IdempotentResponse response) {
+        responses.put(key, response);
+        claims.remove(key);
+    }
+}
@@ -3,6 +3,10 @@ package com.sdmd.taskmanager.mapper;
 import com.sdmd.taskmanager.entity.TaskEntity;
 import com.sdmd.taskmanager.model.Task;
 import com.sdmd.taskmanager.model.Task.StatusEnum;
+import com.sdmd.taskmanager.model.TaskSummary;
+import com.sdmd.taskmanager.model.TaskTreeNode;
+import com.sdmd.taskmanager.repository.TaskSummaryView;
+import com.sdmd.taskmanager.repository.TaskTreeRow;
 import org.mapstruct.*;
 
 import java.time.OffsetDateTime;
@@ -11,11 +15,24 @@ import java.time.OffsetDateTime;
 public interface TaskMapper {
 
     @Mapping(source = "status", target = "status", qualifiedByName = "toEntityStatus")
+    @Mapping(target = "subtaskCount", ignore = true)
+    @Mapping(target = "completedSubtaskCount", ignore = true)
+    // set by Hibernate from the current tenant
+    @Mapping(target = "tenantId", ignore = true)
+    @Mapping(target = "overdue", ignore = true)
     TaskEntity toEntity(Task dto);
 
     @Mapping(source = "status", target = "status", qualifiedByName = "toDtoStatus")
     Task toDto(TaskEntity entity);
 
+    @Mapping(source = "status", target = "status", qualifiedByName = "toSummaryStatus")
+    TaskSummary toSummary(TaskSummaryView view);
+
+    // children are linked by the caller, which has all the nodes
+    @Mapping(source = "status", target = "status", qualifiedByName = "toTreeNodeStatus")
+    @Mapping(target = "children", ignore = true)
+    TaskTreeNode toTreeNode(TaskTreeRow row);
+
     @Named("toEntityStatus")
     static String toEntityStatus(StatusEnum statusEnum) {
         return statusEnum != null ? statusEnum.getValue() : StatusEnum.PENDING.getValue();
@@ -25,4 +42,14 @@ public interface TaskMapper {
     static StatusEnum toDtoStatus(String status) {
         return status != null ? StatusEnum.fromValue(status) : StatusEnum.PENDING;
     }
+
+    @Named("toSummaryStatus")
+    static TaskSummary.StatusEnum toSummaryStatus(String status) {
+        return status != null ? TaskSummary.StatusEnum.fromValue(status) : TaskSummary.StatusEnum.PENDING;
+    }
+
+    @Named("toTreeNodeStatus")
+    static TaskTreeNode.StatusEnum toTreeNodeStatus(String status) {
+        return status != null ? TaskTreeNode.StatusEnum.fromValue(status) : TaskTreeNode.StatusEnum.PENDING;
+    }
 }
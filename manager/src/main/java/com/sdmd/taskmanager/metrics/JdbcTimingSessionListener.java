@@ -0,0 +1,34 @@
+package com.sdmd.taskmanager.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered for every Hibernate session ({@code hibernate.session.events.auto}); adds the time
+ * spent executing statements and batches to the current request. A session is confined to one
+ * thread, so plain fields are enough to hold the start times.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestDbTime.recordExecution(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestDbTime.recordExecution(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,69 @@
+package com.sdmd.taskmanager.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC time spent by the request running on the current thread. Filled in by the Hibernate
+ * session listener and statement inspector, read back by {@link RequestTimingFilter}. Work done
+ * off the request thread (async streaming, background jobs) is not attributed to any request.
+ */
+final class RequestDbTime {
+
+    private static final ThreadLocal<RequestDbTime> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    // null unless this request was sampled
+    private final List<String> statements;
+    private long nanos;
+    private int executions;
+
+    private RequestDbTime(int maxStatements) {
+        this.maxStatements = maxStatements;
+        this.statements = maxStatements > 0 ? new ArrayList<>() : null;
+    }
+
+    /**
+     * @param maxStatements SQL statements to keep for the slow request log, 0 to keep none
+     */
+    static RequestDbTime start(int maxStatements) {
+        RequestDbTime current = new RequestDbTime(maxStatements);
+        CURRENT.set(current);
+        return current;
+    }
+
+    static RequestDbTime current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void recordExecution(long elapsedNanos) {
+        RequestDbTime current = CURRENT.get();
+        if (current != null) {
+            current.nanos += elapsedNanos;
+            current.executions++;
+        }
+    }
+
+    static void recordStatement(String sql) {
+        RequestDbTime current = CURRENT.get();
+        if (current != null && current.statements != null && current.statements.size() < current.maxStatements) {
+            current.statements.add(sql);
+        }
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+
+    int getExecutions() {
+        return executions;
+    }
+
+    List<String> getStatements() {
+        return statements != null ? statements : List.of();
+    }
+}
@@ -0,0 +1,76 @@
+package com.sdmd.taskmanager.metrics;
+
+import com.sdmd.taskmanager.config.MetricsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits each request's latency into database time and application time (mapping, validation,
+ * serialization, ...), per route:
+ * <ul>
+ *     <li>{@code taskmanager.request.db}: time spent executing JDBC statements</li>
+ *     <li>{@code taskmanager.request.app}: the rest of the request</li>
+ *     <li>{@code taskmanager.request.statements}: statements executed per request</li>
+ * </ul>
+ * A sampled fraction of requests also records its SQL, which is logged when the request turns
+ * out to be slower than {@code taskmanager.metrics.slow-request-threshold}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final MetricsProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean sampled = properties.getSlowRequestSampleRate() > 0
+                && ThreadLocalRandom.current().nextDouble() < properties.getSlowRequestSampleRate();
+        RequestDbTime db = RequestDbTime.start(sampled ? properties.getMaxSampledStatements() : 0);
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long total = System.nanoTime() - start;
+            RequestDbTime.end();
+            // streamed responses keep working on another thread; http.server.requests still covers them
+            if (!request.isAsyncStarted()) {
+                record(request, total, db, sampled);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long totalNanos, RequestDbTime db, boolean sampled) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        registry.timer("taskmanager.request.db", tags).record(db.getNanos(), TimeUnit.NANOSECONDS);
+        registry.timer("taskmanager.request.app", tags).record(Math.max(0, totalNanos - db.getNanos()), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("taskmanager.request.statements")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(registry)
+                .record(db.getExecutions());
+
+        if (sampled && totalNanos >= properties.getSlowRequestThreshold().toNanos()) {
+            log.warn("Slow request {} {} took {} ms, {} ms in {} statement(s):\n  {}", request.getMethod(), uri,
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos), TimeUnit.NANOSECONDS.toMillis(db.getNanos()),
+                    db.getExecutions(), String.join("\n  ", db.getStatements()));
+        }
+    }
+}
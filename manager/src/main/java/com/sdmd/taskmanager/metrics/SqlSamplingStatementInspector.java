@@ -0,0 +1,13 @@
+package com.sdmd.taskmanager.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Keeps the SQL of sampled requests for the slow request log; the statement itself is not changed
+public class SqlSamplingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestDbTime.recordStatement(sql);
+        return sql;
+    }
+}
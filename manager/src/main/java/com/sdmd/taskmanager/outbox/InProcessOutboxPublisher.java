@@ -0,0 +1,22 @@
+package com.sdmd.taskmanager.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Republishes each message as a Spring application event, for consumers living in the same
+ * JVM that want the outbox's at-least-once guarantee ({@code @EventListener OutboxMessage}).
+ * A listener that throws fails the batch, which is then redelivered.
+ */
+@RequiredArgsConstructor
+public class InProcessOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
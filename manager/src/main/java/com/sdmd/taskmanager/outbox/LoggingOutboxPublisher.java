@@ -0,0 +1,21 @@
+package com.sdmd.taskmanager.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Writes every message to the {@code com.sdmd.taskmanager.outbox} logger, one line each,
+ * so the log file can be shipped or tailed as the change feed.
+ */
+@Slf4j
+public class LoggingOutboxPublisher implements OutboxPublisher {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            log.info("outbox id={} task={} type={} payload={}",
+                    message.getId(), message.getTaskId(), message.getType(), message.getPayload());
+        }
+    }
+}
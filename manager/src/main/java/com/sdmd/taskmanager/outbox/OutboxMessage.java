@@ -0,0 +1,20 @@
+package com.sdmd.taskmanager.outbox;
+
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * One task change as handed to an {@link OutboxPublisher}. {@code payload} is the JSON form of the
+ * {@link TaskChangedEvent}; {@code id} is unique per change and stays the same when a message is
+ * redelivered, so consumers can use it to discard duplicates.
+ */
+@Value
+public class OutboxMessage {
+    Long id;
+    Long taskId;
+    TaskChangedEvent.Type type;
+    String payload;
+    Instant createdAt;
+}
@@ -0,0 +1,15 @@
+package com.sdmd.taskmanager.outbox;
+
+import java.util.List;
+
+/**
+ * Delivers outbox messages to whatever sits downstream (a broker, a webhook, another module).
+ * <p>
+ * Called from the relay thread, never from a request. The batch counts as delivered only when
+ * this method returns; if it throws, the whole batch stays in the outbox and is offered again on
+ * the next run, so implementations must tolerate seeing a message more than once.
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxMessage> messages);
+}
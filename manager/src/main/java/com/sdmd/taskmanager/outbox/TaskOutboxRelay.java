@@ -0,0 +1,97 @@
+package com.sdmd.taskmanager.outbox;
+
+import com.sdmd.taskmanager.config.OutboxProperties;
+import com.sdmd.taskmanager.entity.TaskOutboxEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.repository.TaskOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox on a background thread. Each run claims up to {@code batch-size} rows with
+ * {@code SKIP LOCKED}, hands them to the {@link OutboxPublisher} and deletes them in the same
+ * transaction, repeating while full batches come back. A failed publish rolls the claim back
+ * and the rows are retried on the next poll: delivery is at least once, in id order within a
+ * batch but not guaranteed across concurrent writers (use the task version to order updates).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.outbox", name = "enabled", matchIfMissing = true)
+public class TaskOutboxRelay {
+
+    private final TaskOutboxRepository outboxRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    public TaskOutboxRelay(TaskOutboxRepository outboxRepository, OutboxPublisher publisher,
+                           TransactionTemplate transactionTemplate, OutboxProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-outbox-"));
+    }
+
+    // not before the context is ready, so the relay never runs against half-initialized beans
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        long period = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::relay, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes everything currently in the outbox.
+     *
+     * @return the number of messages published
+     */
+    public int relay() {
+        int total = 0;
+        try {
+            int published;
+            do {
+                published = relayBatch();
+                total += published;
+            } while (published == properties.getBatchSize());
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed, {} message(s) published before the failure; retrying in {}",
+                    total, properties.getPollInterval(), ex);
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        return transactionTemplate.execute(status -> {
+            List<TaskOutboxEntity> rows = outboxRepository.findByOrderByIdAsc(Limit.of(properties.getBatchSize()));
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            publisher.publish(rows.stream().map(TaskOutboxRelay::toMessage).toList());
+            outboxRepository.deleteAllInBatch(rows);
+            return rows.size();
+        });
+    }
+
+    private static OutboxMessage toMessage(TaskOutboxEntity row) {
+        return new OutboxMessage(row.getId(), row.getTaskId(), TaskChangedEvent.Type.valueOf(row.getEventType()),
+                row.getPayload(), row.getCreatedAt());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdmd.taskmanager.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdmd.taskmanager.entity.TaskOutboxEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.repository.TaskOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Records every task change in the outbox. A plain {@code @EventListener} runs synchronously
+ * inside the service's transaction, so the outbox row commits or rolls back with the change;
+ * only an insert is added to the request path, delivery is left to {@link TaskOutboxRelay}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.outbox", name = "enabled", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TaskOutboxWriter {
+
+    private final TaskOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskOutboxEntity row = new TaskOutboxEntity();
+        row.setTaskId(event.getTaskId());
+        row.setEventType(event.getType().name());
+        row.setPayload(toJson(event));
+        row.setCreatedAt(Instant.now());
+        outboxRepository.save(row);
+    }
+
+    private String toJson(TaskChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize " + event.getType() + " event for task " + event.getTaskId(), ex);
+        }
+    }
+}
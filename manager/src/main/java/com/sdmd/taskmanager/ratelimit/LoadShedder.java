@@ -0,0 +1,142 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import com.sdmd.taskmanager.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rejects a share of requests while the service is saturated. Every {@code sample-interval} it
+ * compares the mean latency of the requests it let through, and the mean connection wait of every
+ * Hikari pool ({@code hikaricp.connections.acquire}), with their thresholds. At {@code n} times a
+ * threshold it sheds {@code 1 - 1/n} of the traffic, so what gets through is roughly what fitted
+ * under the threshold; once the pressure goes, the fraction halves every interval instead of
+ * letting the whole backlog back in at once. The fraction is exported as
+ * {@code taskmanager.load.shed.fraction}.
+ */
+@Slf4j
+public class LoadShedder {
+
+    private static final double MIN_FRACTION = 0.01;
+
+    private final LoadSheddingProperties properties;
+    private final MeterRegistry registry;
+    private final List<PathPattern> excluded;
+    private final Counter rejected;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    // last (count, total nanos) seen per pool timer, to take means over one interval only
+    private final Map<Meter.Id, double[]> poolWaits = new HashMap<>();
+    private volatile double shedFraction;
+
+    public LoadShedder(LoadSheddingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.excluded = RequestPaths.parse(properties.getExcludedPaths());
+        this.rejected = registry.counter("taskmanager.requests.rejected", "reason", "overload", "limit", "load");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-shedder-"));
+        Gauge.builder("taskmanager.load.shed.fraction", this, LoadShedder::getShedFraction).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        long period = properties.getSampleInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sampleQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isExcluded(HttpServletRequest request) {
+        return RequestPaths.matchesAny(excluded, request);
+    }
+
+    public boolean tryAdmit() {
+        double fraction = shedFraction;
+        if (fraction > 0 && ThreadLocalRandom.current().nextDouble() < fraction) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void record(long nanos) {
+        latencyNanos.add(nanos);
+        latencyCount.increment();
+    }
+
+    public double getShedFraction() {
+        return shedFraction;
+    }
+
+    public Duration getRetryAfter() {
+        return properties.getSampleInterval();
+    }
+
+    public synchronized void sample() {
+        // the two adders are not reset atomically; a request straddling the reset only skews one mean slightly
+        long count = latencyCount.sumThenReset();
+        long nanos = latencyNanos.sumThenReset();
+        double latencyPressure = count >= properties.getMinRequests()
+                ? (double) nanos / count / properties.getLatencyThreshold().toNanos() : 0;
+        double poolPressure = poolWaitNanos() / properties.getPoolWaitThreshold().toNanos();
+        double pressure = Math.max(latencyPressure, poolPressure);
+
+        double target = pressure > 1 ? Math.min(properties.getMaxShedFraction(), 1 - 1 / pressure) : 0;
+        double next = Math.max(target, shedFraction / 2);
+        if (next < MIN_FRACTION) {
+            next = 0;
+        }
+        if (next > 0 && shedFraction == 0) {
+            log.warn("Shedding {}% of requests: latency at {}x and pool wait at {}x their thresholds",
+                    Math.round(next * 100), String.format("%.2f", latencyPressure), String.format("%.2f", poolPressure));
+        } else if (next == 0 && shedFraction > 0) {
+            log.info("Load shedding stopped");
+        }
+        shedFraction = next;
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException ex) {
+            log.warn("Load shedding sample failed", ex);
+        }
+    }
+
+    // worst mean wait among the pools over the last interval
+    private double poolWaitNanos() {
+        double worst = 0;
+        for (Timer timer : registry.find("hikaricp.connections.acquire").timers()) {
+            double count = timer.count();
+            double total = timer.totalTime(TimeUnit.NANOSECONDS);
+            double[] previous = poolWaits.put(timer.getId(), new double[]{count, total});
+            if (previous != null && count > previous[0]) {
+                worst = Math.max(worst, (total - previous[1]) / (count - previous[0]));
+            }
+        }
+        return worst;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import com.sdmd.taskmanager.exception.ServiceOverloadedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Answers 503 for the share of requests {@link LoadShedder} currently sheds, and times the others.
+ */
+@RequiredArgsConstructor
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final LoadShedder shedder;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return shedder.isExcluded(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!shedder.tryAdmit()) {
+            exceptionResolver.resolveException(request, response, null, new ServiceOverloadedException(shedder.getRetryAfter()));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // streams (SSE, NDJSON export) return here at once and would only drag the mean down
+            if (!request.isAsyncStarted()) {
+                shedder.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
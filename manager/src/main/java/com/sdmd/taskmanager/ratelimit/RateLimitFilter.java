@@ -0,0 +1,45 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import com.sdmd.taskmanager.exception.RateLimitExceededException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Runs in the security filter chain, ahead of any controller, and answers 429 through the
+ * {@code @ControllerAdvice} handlers (so the body matches every other error) once the client's
+ * bucket is empty. Every limited response says how much of the burst is left.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter limiter;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limiter.isExcluded(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Decision decision = limiter.acquire(request);
+        response.setHeader(LIMIT_HEADER, Integer.toString(decision.limit()));
+        response.setHeader(REMAINING_HEADER, Long.toString(decision.remaining()));
+        if (!decision.allowed()) {
+            exceptionResolver.resolveException(request, response, null, new RateLimitExceededException(decision.retryAfter()));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,98 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdmd.taskmanager.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One {@link TokenBucket} per client and limit. A client is the authenticated principal, or for
+ * anonymous requests the remote address: never a value the client can change at will, such as an
+ * unauthenticated header, which would buy a fresh bucket per request. Buckets live in a Caffeine
+ * cache, which spreads them over a striped concurrent map, holds at most {@code max-clients} and
+ * drops the ones left idle for {@code idle-timeout}. Refusals are counted in
+ * {@code taskmanager.requests.rejected}.
+ */
+public class RateLimiter {
+
+    private final List<Rule> rules;
+    private final List<PathPattern> excluded;
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this.excluded = RequestPaths.parse(properties.getExcludedPaths());
+        this.rules = new ArrayList<>();
+        for (RateLimitProperties.Endpoint endpoint : properties.getEndpoints()) {
+            Set<String> methods = endpoint.getMethods().stream().map(String::toUpperCase).collect(Collectors.toSet());
+            rules.add(new Rule(PathPatternParser.defaultInstance.parse(endpoint.getPath()), methods, endpoint, registry));
+        }
+        rules.add(new Rule(null, Set.of(), properties.getDefaults(), registry));
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxClients())
+                .build();
+    }
+
+    public boolean isExcluded(HttpServletRequest request) {
+        return RequestPaths.matchesAny(excluded, request);
+    }
+
+    public Decision acquire(HttpServletRequest request) {
+        PathContainer path = RequestPaths.of(request);
+        int index = 0;
+        while (!rules.get(index).matches(request.getMethod(), path)) {
+            index++;
+        }
+        Rule rule = rules.get(index);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(index, client(request)),
+                key -> new TokenBucket(rule.intervalNanos(), rule.burst(), now));
+        long result = bucket.tryAcquire(now);
+        if (result < 0) {
+            rule.rejected().increment();
+            return new Decision(false, rule.burst(), 0, Duration.ofNanos(-result));
+        }
+        return new Decision(true, rule.burst(), result, Duration.ZERO);
+    }
+
+    // the security chain's request wrapper answers null for anonymous requests
+    private static String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    public record Decision(boolean allowed, int limit, long remaining, Duration retryAfter) {
+    }
+
+    private record BucketKey(int rule, String client) {
+    }
+
+    private record Rule(PathPattern path, Set<String> methods, long intervalNanos, int burst, Counter rejected) {
+
+        Rule(PathPattern path, Set<String> methods, RateLimitProperties.Limit limit, MeterRegistry registry) {
+            this(path, methods, limit.getPeriod().toNanos() / Math.max(1, limit.getRequests()), Math.max(1, limit.getBurst()),
+                    registry.counter("taskmanager.requests.rejected", "reason", "rate-limit",
+                            "limit", path != null ? path.getPatternString() : "default"));
+        }
+
+        // the default rule has no path and matches everything
+        boolean matches(String method, PathContainer requestPath) {
+            return (path == null || path.matches(requestPath)) && (methods.isEmpty() || methods.contains(method));
+        }
+    }
+}
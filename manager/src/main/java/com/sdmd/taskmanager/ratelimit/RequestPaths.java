@@ -0,0 +1,30 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    static PathContainer of(HttpServletRequest request) {
+        return PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    static boolean matchesAny(List<PathPattern> patterns, HttpServletRequest request) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer path = of(request);
+        return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+}
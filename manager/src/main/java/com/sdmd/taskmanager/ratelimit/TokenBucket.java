@@ -0,0 +1,39 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp (GCRA): the time at which the bucket would be full
+ * again. Taking a token pushes that time one refill interval further; a request is refused when
+ * it would push it more than {@code burst} intervals past now. One CAS per request, no lock.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return the tokens left after this request, or, when refused, minus the nanoseconds until
+     * the next token (never 0, so the sign alone tells the two apart)
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > toleranceNanos) {
+                return -Math.max(1, ahead - toleranceNanos);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return (toleranceNanos - ahead) / intervalNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.sdmd.taskmanager.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread's reads as primary-only, for the requests of a client that wrote
+ * recently (see {@link ReadYourWritesFilter}).
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    // for work handed to another thread on behalf of the request, such as a streamed response body
+    public static <T> T callAs(boolean pinned, Supplier<T> work) {
+        boolean outer = isPinned();
+        set(pinned);
+        try {
+            return work.get();
+        } finally {
+            set(outer);
+        }
+    }
+
+    private static void set(boolean pinned) {
+        if (pinned) {
+            pin();
+        } else {
+            unpin();
+        }
+    }
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,99 @@
+package com.sdmd.taskmanager.replica;
+
+import com.sdmd.taskmanager.config.ReplicaProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each replica's lag every {@code check-interval} and takes it out of the read rotation
+ * while it is more than {@code max-lag} behind, or while the lag cannot be read at all (replication
+ * stopped, replica down). The last measurement is exported as {@code taskmanager.replica.lag}.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String SECONDS_BEHIND_COLUMN = "Seconds_Behind_Source";
+
+    private final ReplicaSet replicas;
+    private final ReplicaProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(ReplicaSet replicas, ReplicaProperties properties, MeterRegistry registry) {
+        this.replicas = replicas;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-replica-"));
+        for (ReplicaSet.Replica replica : replicas.getReplicas()) {
+            Gauge.builder("taskmanager.replica.lag", replica, ReplicaSet.Replica::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        long period = properties.getCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void check() {
+        double maxLag = properties.getMaxLag().toMillis() / 1000.0;
+        for (ReplicaSet.Replica replica : replicas.getReplicas()) {
+            double lag = measure(replica);
+            boolean healthy = lag >= 0 && lag <= maxLag;
+            if (healthy != replica.isHealthy()) {
+                if (healthy) {
+                    log.info("Replica {} back in the read rotation, {}s behind", replica.getName(), lag);
+                } else {
+                    log.warn("Replica {} out of the read rotation, lag {}s (max {}s, -1 = unknown)", replica.getName(), lag, maxLag);
+                }
+            }
+            replica.setLagSeconds(lag);
+            replica.setHealthy(healthy);
+        }
+    }
+
+    private double measure(ReplicaSet.Replica replica) {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(properties.getLagQuery())) {
+            if (!rows.next()) {
+                // SHOW REPLICA STATUS on a server that is not replicating
+                return -1;
+            }
+            Object lag = rows.getObject(lagColumn(rows.getMetaData()));
+            return lag instanceof Number number ? number.doubleValue() : -1;
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Could not read the lag of replica {}", replica.getName(), ex);
+            return -1;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (SECONDS_BEHIND_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sdmd.taskmanager.replica;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Read-only side of the application DataSource. Connections come from a healthy replica, or from
+ * the primary when the current request is pinned by {@link ReadYourWrites} or no replica is fit.
+ * Used as the read-only target of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which only asks for a connection once a read-only transaction runs its first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private DataSource target() {
+        if (ReadYourWrites.isPinned()) {
+            return primary;
+        }
+        return replicas.nextHealthy().orElse(primary);
+    }
+}
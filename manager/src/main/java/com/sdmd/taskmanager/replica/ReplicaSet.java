@@ -0,0 +1,60 @@
+package com.sdmd.taskmanager.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas and which of them may serve reads, as last decided by {@link ReplicaLagMonitor}.
+ * Replicas start out unhealthy, so nothing is read from one before its first lag check.
+ */
+public class ReplicaSet implements AutoCloseable {
+
+    @Getter
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(List<Replica> replicas) {
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /**
+     * Round robin over the healthy replicas; empty when there is none.
+     */
+    public Optional<DataSource> nextHealthy() {
+        int size = replicas.size();
+        int start = size > 0 ? Math.floorMod(next.getAndIncrement(), size) : 0;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return Optional.of(replica.getDataSource());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getPool().close());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        // the pool, or the bulkhead in front of it
+        private final DataSource dataSource;
+        @Setter
+        private volatile boolean healthy;
+        // seconds, -1 while unknown
+        @Setter
+        private volatile double lagSeconds = -1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sdmd.taskmanager.repository;
+
+import com.sdmd.taskmanager.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    // read from the primary: a replica that has not caught up would let a retry create the task again
+    @Override
+    @Transactional
+    Optional<IdempotencyKeyEntity> findById(String key);
+
+    // a plain insert, so that a key claimed concurrently fails on the primary key instead of being merged
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idempotency_key, fingerprint, status, created_at) "
+            + "values (:key, :fingerprint, :status, :createdAt)", nativeQuery = true)
+    void insert(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("status") int status,
+                @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyEntity k set k.status = :status, k.taskId = :taskId, k.url = :url, k.etag = :etag "
+            + "where k.key = :key and k.status = :pending and k.createdAt = :claimedAt")
+    int complete(@Param("key") String key, @Param("claimedAt") Instant claimedAt, @Param("pending") int pending,
+                 @Param("status") int status, @Param("taskId") Long taskId, @Param("url") String url,
+                 @Param("etag") String etag);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.key = :key and k.status = :pending and k.createdAt = :claimedAt")
+    int deleteClaim(@Param("key") String key, @Param("claimedAt") Instant claimedAt, @Param("pending") int pending);
+
+    // an expired response, or a claim left behind by a request that never finished
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.key = :key "
+            + "and (k.createdAt < :expiredBefore or (k.status = :pending and k.createdAt < :abandonedBefore))")
+    int deleteStale(@Param("key") String key, @Param("expiredBefore") Instant expiredBefore,
+                    @Param("pending") int pending, @Param("abandonedBefore") Instant abandonedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,10 @@
+package com.sdmd.taskmanager.repository;
+
+import java.time.LocalDate;
+
+// Number of one tenant's open tasks due on one day
+public interface TaskDayCount {
+    String getTenantId();
+    LocalDate getDay();
+    long getCount();
+}
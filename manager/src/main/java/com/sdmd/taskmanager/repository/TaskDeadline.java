@@ -0,0 +1,9 @@
+package com.sdmd.taskmanager.repository;
+
+import java.time.OffsetDateTime;
+
+// Id and deadline of an open task, all the deadline scheduler needs to index it
+public interface TaskDeadline {
+    Long getId();
+    OffsetDateTime getDeadline();
+}
@@ -0,0 +1,10 @@
+package com.sdmd.taskmanager.repository;
+
+import java.time.OffsetDateTime;
+
+// Number of one tenant's open tasks due at one instant
+public interface TaskDeadlineCount {
+    String getTenantId();
+    OffsetDateTime getDeadline();
+    long getCount();
+}
@@ -0,0 +1,17 @@
+package com.sdmd.taskmanager.repository;
+
+import com.sdmd.taskmanager.entity.TaskDeadlineWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskDeadlineWatermarkRepository extends JpaRepository<TaskDeadlineWatermarkEntity, String> {
+
+    // read from the primary: a lagging replica would replay deadlines that already fired
+    @Override
+    @Transactional
+    Optional<TaskDeadlineWatermarkEntity> findById(String name);
+}
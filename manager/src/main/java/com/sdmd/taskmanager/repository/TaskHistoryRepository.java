@@ -0,0 +1,53 @@
+package com.sdmd.taskmanager.repository;
+
+import com.sdmd.taskmanager.entity.TaskHistoryEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistoryEntity, Long> {
+
+    // on idx_task_history_task_version
+    Optional<TaskHistoryEntity> findFirstByTaskIdOrderByVersionDesc(Long taskId);
+
+    // newest first, on idx_task_history_task_version
+    List<TaskHistoryEntity> findByTaskIdAndVersionLessThanOrderByVersionDesc(Long taskId, Long beforeVersion, Limit limit);
+
+    /**
+     * What is needed to rebuild the task as of {@code asOf}: the last row at or before it that holds
+     * a full state (the creation, a periodic snapshot or a compacted row) and the deltas after it.
+     */
+    @Query("""
+            select h from TaskHistoryEntity h
+            where h.taskId = :taskId and h.changedAt <= :asOf and h.version >= (
+                select max(b.version) from TaskHistoryEntity b
+                where b.taskId = :taskId and b.changedAt <= :asOf and (b.snapshot is not null or b.changeType = 'CREATED'))
+            order by h.version
+            """)
+    List<TaskHistoryEntity> findReplayAsOf(@Param("taskId") Long taskId, @Param("asOf") Instant asOf);
+
+    // tasks with more than one row before the cutoff, i.e. something left to fold
+    @Query("""
+            select h.taskId from TaskHistoryEntity h where h.changedAt < :cutoff
+            group by h.taskId having count(h) > 1
+            """)
+    List<Long> findCompactableTaskIds(@Param("cutoff") Instant cutoff, Limit limit);
+
+    @Query("select h.taskId from TaskHistoryEntity h where h.changeType = 'DELETED' and h.changedAt < :cutoff")
+    List<Long> findTaskIdsDeletedBefore(@Param("cutoff") Instant cutoff, Limit limit);
+
+    List<TaskHistoryEntity> findByTaskIdInAndChangedAtBeforeOrderByTaskIdAscVersionAsc(Collection<Long> taskIds, Instant cutoff);
+
+    @Modifying
+    @Query("delete from TaskHistoryEntity h where h.taskId in :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+}
@@ -0,0 +1,23 @@
+package com.sdmd.taskmanager.repository;
+
+import com.sdmd.taskmanager.entity.TaskOutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.hibernate.cfg.AvailableSettings.JAKARTA_LOCK_TIMEOUT;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEntity, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent relays claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    List<TaskOutboxEntity> findByOrderByIdAsc(Limit limit);
+}
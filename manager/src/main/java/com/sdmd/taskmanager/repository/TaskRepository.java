@@ -1,9 +1,136 @@
 package com.sdmd.taskmanager.repository;
 
 import com.sdmd.taskmanager.entity.TaskEntity;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
+public interface TaskRepository extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity> {
+
+    // Spring Data runs these in a read-only transaction by default, which would send them to a
+    // replica. Lookups by id fill the cache and feed updates, so they always read the primary.
+    @Override
+    @Transactional
+    Optional<TaskEntity> findById(Long id);
+
+    @Override
+    @Transactional
+    List<TaskEntity> findAllById(Iterable<Long> ids);
+
+    @Query("select t.id from TaskEntity t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.version from TaskEntity t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select t.tenantId from TaskEntity t where t.id = :id")
+    Optional<String> findTenantIdById(@Param("id") Long id);
+
+    /**
+     * Ids of the tasks matching {@code text} in title or description, best match first, resuming
+     * after ({@code afterScore}, {@code afterId}) when both are given. MySQL only: the MATCH must use
+     * the {@code idx_tasks_fulltext} index, which also keeps it from scanning the table. Native, so
+     * Hibernate does not add the tenant: {@code tenantId} does, and is required. A FULLTEXT index
+     * cannot hold {@code tenant_id} as a key part; the tenant is checked on the matching rows.
+     */
+    @Query(value = """
+            SELECT s.id AS id, s.score AS score FROM (
+                SELECT t.id, MATCH (t.title, t.description) AGAINST (:text IN NATURAL LANGUAGE MODE) AS score
+                FROM tasks t
+                WHERE MATCH (t.title, t.description) AGAINST (:text IN NATURAL LANGUAGE MODE)
+                  AND t.tenant_id = :tenantId
+            ) s
+            WHERE :afterScore IS NULL OR s.score < :afterScore OR (s.score = :afterScore AND s.id > :afterId)
+            ORDER BY s.score DESC, s.id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TaskSearchHit> searchIds(@Param("tenantId") String tenantId, @Param("text") String text, @Param("afterScore") Double afterScore,
+                                  @Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * The task {@code rootId} and its subtasks down to {@code maxDepth} levels below it, in one
+     * recursive CTE: each step is an index lookup on {@code idx_tasks_parent_id}. Ordered by id
+     * only, so siblings come out in a stable order; a subtask can have a lower id than its parent
+     * (ids are reserved in blocks per instance).
+     */
+    @Query("""
+            with subtree as (
+                select t.id as id, 0 as depth from TaskEntity t where t.id = :rootId
+                union all
+                select c.id as id, s.depth + 1 as depth from TaskEntity c join subtree s on c.parentId = s.id
+                where s.depth < :maxDepth
+            )
+            select t.id as id, t.parentId as parentId, t.title as title, t.status as status, t.deadline as deadline,
+                   t.version as version, t.subtaskCount as subtaskCount, t.completedSubtaskCount as completedSubtaskCount
+            from TaskEntity t join subtree s on t.id = s.id
+            order by t.id
+            """)
+    List<TaskTreeRow> findSubtree(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
+
+    // relative, so concurrent subtask changes add up instead of overwriting each other; the version
+    // moves too, since the counts are part of the task (and of its ETag)
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update TaskEntity t set t.subtaskCount = t.subtaskCount + :subtasks,
+                t.completedSubtaskCount = t.completedSubtaskCount + :completed, t.version = t.version + 1
+            where t.id = :id
+            """)
+    int adjustRollup(@Param("id") Long id, @Param("subtasks") int subtasks, @Param("completed") int completed);
+
+    // range scan on idx_tasks_status_deadline, one per status
+    @Query("select t.id as id, t.deadline as deadline from TaskEntity t "
+            + "where t.status in :statuses and t.deadline >= :from and t.deadline < :to")
+    List<TaskDeadline> findDeadlinesBetween(@Param("statuses") Collection<String> statuses,
+                                            @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    // the counts below are per tenant, for every tenant the session sees (all of them outside a request)
+    @Query("select t.tenantId as tenantId, t.status as status, count(t) as count from TaskEntity t group by t.tenantId, t.status")
+    List<TaskStatusCount> countByStatus();
+
+    @Query("""
+            select t.tenantId as tenantId, count(t) as count from TaskEntity t
+            where t.status <> :closedStatus and t.deadline < :before
+            group by t.tenantId
+            """)
+    List<TaskTenantCount> countOpenDueBefore(@Param("closedStatus") String closedStatus, @Param("before") OffsetDateTime before);
+
+    @Query("""
+            select t.tenantId as tenantId, t.deadline as deadline, count(t) as count from TaskEntity t
+            where t.status <> :closedStatus and t.deadline >= :from and t.deadline < :until
+            group by t.tenantId, t.deadline
+            """)
+    List<TaskDeadlineCount> countOpenByDeadlineBetween(@Param("closedStatus") String closedStatus,
+                                                       @Param("from") OffsetDateTime from,
+                                                       @Param("until") OffsetDateTime until);
+
+    // days are taken in the database session time zone
+    @Query("""
+            select t.tenantId as tenantId, cast(t.deadline as LocalDate) as day, count(t) as count from TaskEntity t
+            where t.status <> :closedStatus and t.deadline >= :from
+            group by t.tenantId, cast(t.deadline as LocalDate)
+            """)
+    List<TaskDayCount> countOpenByDeadlineDayFrom(@Param("closedStatus") String closedStatus, @Param("from") OffsetDateTime from);
+
+    // Integer.MIN_VALUE makes Connector/J stream rows one by one instead of buffering the result set
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<TaskEntity> streamAllByOrderByIdAsc();
 }
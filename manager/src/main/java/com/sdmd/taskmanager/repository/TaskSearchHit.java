@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.repository;
+
+// One full-text match: the task id and its MySQL relevance score
+public interface TaskSearchHit {
+    Long getId();
+    Double getScore();
+}
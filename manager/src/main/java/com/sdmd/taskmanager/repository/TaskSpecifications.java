@@ -0,0 +1,67 @@
+package com.sdmd.taskmanager.repository;
+
+import com.sdmd.taskmanager.dto.TaskCursor;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.dto.TaskSort;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.model.Task.StatusEnum;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+/**
+ * Query building blocks for {@link TaskRepository}. Status and deadline predicates are
+ * covered by the (status, deadline) and (deadline) indexes.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<TaskEntity> matching(TaskQuery query, TaskCursor after) {
+        return Specification.allOf(
+                hasStatusIn(query.getStatuses()),
+                deadlineFrom(query.getDeadlineFrom()),
+                deadlineBefore(query.getDeadlineTo()),
+                after(after, query.getSort()));
+    }
+
+    public static Specification<TaskEntity> hasStatusIn(Collection<StatusEnum> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("status").in(statuses.stream().map(StatusEnum::getValue).toList());
+    }
+
+    public static Specification<TaskEntity> deadlineFrom(OffsetDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("deadline"), from);
+    }
+
+    public static Specification<TaskEntity> deadlineBefore(OffsetDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("deadline"), to);
+    }
+
+    /**
+     * Keyset predicate selecting the rows that come after the cursor in the given ordering.
+     */
+    public static Specification<TaskEntity> after(TaskCursor cursor, TaskSort sort) {
+        if (cursor == null) {
+            return null;
+        }
+        boolean desc = sort.isDescending();
+        if (!sort.isByDeadline()) {
+            return (root, query, cb) -> desc
+                    ? cb.lessThan(root.get("id"), cursor.getAfterId())
+                    : cb.greaterThan(root.get("id"), cursor.getAfterId());
+        }
+        return (root, query, cb) -> {
+            OffsetDateTime deadline = cursor.getAfterDeadline();
+            return cb.or(
+                    desc ? cb.lessThan(root.get("deadline"), deadline) : cb.greaterThan(root.get("deadline"), deadline),
+                    cb.and(
+                            cb.equal(root.get("deadline"), deadline),
+                            desc ? cb.lessThan(root.get("id"), cursor.getAfterId()) : cb.greaterThan(root.get("id"), cursor.getAfterId())));
+        };
+    }
+}
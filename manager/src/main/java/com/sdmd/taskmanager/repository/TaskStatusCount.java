@@ -0,0 +1,8 @@
+package com.sdmd.taskmanager.repository;
+
+// Number of one tenant's tasks in one status
+public interface TaskStatusCount {
+    String getTenantId();
+    String getStatus();
+    long getCount();
+}
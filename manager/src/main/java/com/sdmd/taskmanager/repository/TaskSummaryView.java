@@ -0,0 +1,12 @@
+package com.sdmd.taskmanager.repository;
+
+import java.time.OffsetDateTime;
+
+// Closed projection for list views: only these columns are selected, never the description TEXT
+public interface TaskSummaryView {
+    Long getId();
+    Long getVersion();
+    String getTitle();
+    String getStatus();
+    OffsetDateTime getDeadline();
+}
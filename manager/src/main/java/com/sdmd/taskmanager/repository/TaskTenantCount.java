@@ -0,0 +1,7 @@
+package com.sdmd.taskmanager.repository;
+
+// Number of one tenant's tasks matching some condition
+public interface TaskTenantCount {
+    String getTenantId();
+    long getCount();
+}
@@ -0,0 +1,15 @@
+package com.sdmd.taskmanager.repository;
+
+import java.time.OffsetDateTime;
+
+// one node of TaskRepository.findSubtree, without the description
+public interface TaskTreeRow {
+    Long getId();
+    Long getParentId();
+    String getTitle();
+    String getStatus();
+    OffsetDateTime getDeadline();
+    Long getVersion();
+    int getSubtaskCount();
+    int getCompletedSubtaskCount();
+}
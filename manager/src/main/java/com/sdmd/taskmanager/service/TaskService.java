@@ -1,14 +1,38 @@
 package com.sdmd.taskmanager.service;
 
+import com.sdmd.taskmanager.dto.TaskBatchResult;
 import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskCursor;
+import com.sdmd.taskmanager.dto.TaskPage;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.dto.TaskSummaryPage;
 import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.model.TaskTreeNode;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskService {
     Task createTask(TaskCreateRequest request);
+    TaskBatchResult createTasks(List<TaskCreateRequest> requests);
     Task getTaskById(Long id);
-    List<Task> getAllTasks();
+    long getTaskVersion(Long id);
+    TaskPage getTasks(TaskQuery query, TaskCursor after, Integer limit);
+    TaskSummaryPage getTaskSummaries(TaskQuery query, TaskCursor after, Integer limit);
+    TaskPage searchTasks(String text, TaskCursor after, Integer limit);
+    TaskTreeNode getTaskTree(Long id, Integer depth);
+    void streamTasks(Consumer<Task> consumer);
     Task updateTask(Long id, Task task);
+    Task patchTask(Long id, TaskPatch patch);
+    TaskBatchResult updateTasks(List<Task> tasks);
     void deleteTask(Long id);
+    TaskBatchResult deleteTasks(List<Long> ids);
+
+    /**
+     * Flags the task as overdue if it is still open and past its deadline.
+     *
+     * @return whether the flag was set by this call
+     */
+    boolean markOverdue(Long id);
 }
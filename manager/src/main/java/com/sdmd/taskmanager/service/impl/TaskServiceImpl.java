@@ -1,69 +1,603 @@
 package com.sdmd.taskmanager.service.impl;
 
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
 import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskCursor;
+import com.sdmd.taskmanager.dto.TaskPage;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.dto.TaskSort;
+import com.sdmd.taskmanager.dto.TaskSummaryPage;
 import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.exception.BatchTooLargeException;
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.exception.InvalidTaskPatchException;
+import com.sdmd.taskmanager.exception.TaskBatchIncompleteException;
+import com.sdmd.taskmanager.exception.TaskHasSubtasksException;
+import com.sdmd.taskmanager.exception.TaskNotFoundException;
+import com.sdmd.taskmanager.exception.TaskVersionConflictException;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
 import com.sdmd.taskmanager.mapper.TaskMapper;
 import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.model.TaskSummary;
+import com.sdmd.taskmanager.model.TaskTreeNode;
 import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.repository.TaskSearchHit;
+import com.sdmd.taskmanager.repository.TaskSpecifications;
+import com.sdmd.taskmanager.repository.TaskSummaryView;
+import com.sdmd.taskmanager.repository.TaskTreeRow;
 import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.singleflight.Coalesced;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "taskmanager.service", histogram = true)
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
+    private final EntityManager entityManager;
+    private final PaginationProperties paginationProperties;
+    private final BatchProperties batchProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = CacheConfig.RESULT_TASK_KEY)
     public Task createTask(TaskCreateRequest request) {
-        // Manually map TaskCreateRequest → Task
-        Task task = new Task();
-        task.setTitle(request.getTitle());
-        task.setDescription(request.getDescription());
-        task.setDeadline(request.getDeadline());
-        task.setStatus(Task.StatusEnum.PENDING); // default status
+        if (request.getParentId() != null && !taskRepository.existsById(request.getParentId())) {
+            throw new InvalidQueryParameterException("parentId", String.valueOf(request.getParentId()));
+        }
+        TaskEntity savedEntity = taskRepository.save(newEntity(request));
 
-        TaskEntity entity = taskMapper.toEntity(task);
+        Task created = taskMapper.toDto(savedEntity);
+        eventPublisher.publishEvent(TaskChangedEvent.created(created));
+        return created;
+    }
+
+    @Override
+    public TaskBatchResult createTasks(List<TaskCreateRequest> requests) {
+        checkBatchSize(requests);
+        TaskBatchResult result = new TaskBatchResult();
+
+        try {
+            forEachChunk(requests, (offset, chunk) -> {
+                // one lookup for all the parents named in the chunk
+                Set<Long> parentIds = chunk.stream()
+                        .map(TaskCreateRequest::getParentId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Set<Long> parents = parentIds.isEmpty() ? Set.of() : new HashSet<>(taskRepository.findExistingIds(parentIds));
 
-        TaskEntity savedEntity = taskRepository.save(entity);
+                List<Integer> indexes = new ArrayList<>();
+                List<TaskEntity> entities = new ArrayList<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    String violation = validate(chunk.get(i));
+                    Long parentId = chunk.get(i).getParentId();
+                    if (violation == null && parentId != null && !parents.contains(parentId)) {
+                        violation = "parentId: " + new TaskNotFoundException(parentId).getMessage();
+                    }
+                    if (violation != null) {
+                        result.add(TaskBatchItemResult.failure(offset + i, null, violation));
+                    } else {
+                        indexes.add(offset + i);
+                        entities.add(newEntity(chunk.get(i)));
+                    }
+                }
+                writeChunk(indexes, entities, TaskBatchItemResult.Outcome.CREATED,
+                        written -> TaskChangedEvent.created(taskMapper.toDto(written)), result);
+            });
+        } catch (RuntimeException ex) {
+            if (result.getItems().isEmpty()) {
+                throw ex;
+            }
+            // the items in the result were committed or rejected; retrying them would insert some twice
+            throw new TaskBatchIncompleteException(result.sorted(), ex);
+        }
 
-        return taskMapper.toDto(savedEntity);
+        return result.sorted();
     }
 
+    // Not read-only on purpose: a miss read from a lagging replica could put a task that was just
+    // changed or deleted back into the cache for its whole TTL, so findById stays on the primary.
+    // sync: the miss is loaded inside the cache's atomic compute, so a put or evict made after a
+    // write commits waits for a load that may have read the old row, and then replaces or removes it
     @Override
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = CacheConfig.TASK_KEY, sync = true)
+    @Coalesced
     public Task getTaskById(Long id) {
         TaskEntity entity = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+                .orElseThrow(() -> new TaskNotFoundException(id));
         return taskMapper.toDto(entity);
     }
 
     @Override
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll().stream()
+    public long getTaskVersion(Long id) {
+        // Answer conditional GETs from the cached DTO when possible, else with a single-column lookup
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        Task cached = cache != null ? cache.get(TenantContext.cacheKey(id), Task.class) : null;
+        if (cached != null && cached.getVersion() != null) {
+            return cached.getVersion();
+        }
+        return taskRepository.findVersionById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public TaskPage getTasks(TaskQuery query, TaskCursor after, Integer limit) {
+        int pageSize = resolveLimit(limit);
+        TaskSort sort = query.getSort();
+        checkCursor(sort, after);
+
+        // Fetch one extra row to know whether a next page exists without a COUNT query
+        List<TaskEntity> rows = taskRepository.findBy(TaskSpecifications.matching(query, after),
+                q -> q.sortBy(sort.getSort()).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<Task> items = rows.stream()
+                .limit(pageSize)
                 .map(taskMapper::toDto)
                 .collect(Collectors.toList());
+
+        TaskCursor next = null;
+        if (hasMore) {
+            Task last = items.get(items.size() - 1);
+            next = TaskCursor.of(last.getId(), last.getDeadline(), sort);
+        }
+        return new TaskPage(items, next);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public TaskSummaryPage getTaskSummaries(TaskQuery query, TaskCursor after, Integer limit) {
+        int pageSize = resolveLimit(limit);
+        TaskSort sort = query.getSort();
+        checkCursor(sort, after);
+
+        // Same query as getTasks, but selecting only the TaskSummaryView columns
+        List<TaskSummaryView> rows = taskRepository.findBy(TaskSpecifications.matching(query, after),
+                q -> q.as(TaskSummaryView.class).sortBy(sort.getSort()).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskSummary> items = rows.stream()
+                .limit(pageSize)
+                .map(taskMapper::toSummary)
+                .collect(Collectors.toList());
+
+        TaskCursor next = null;
+        if (hasMore) {
+            TaskSummary last = items.get(items.size() - 1);
+            next = TaskCursor.of(last.getId(), last.getDeadline(), sort);
+        }
+        return new TaskSummaryPage(items, next);
+    }
+
+    private static void checkCursor(TaskSort sort, TaskCursor after) {
+        if (after != null && (after.getAfterScore() != null || sort.isByDeadline() != (after.getAfterDeadline() != null))) {
+            // A cursor issued for one ordering is meaningless in another
+            throw new InvalidQueryParameterException("after", after.encode());
+        }
     }
 
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public TaskPage searchTasks(String text, TaskCursor after, Integer limit) {
+        int pageSize = resolveLimit(limit);
+        if (after != null && after.getAfterScore() == null) {
+            throw new InvalidQueryParameterException("after", after.encode());
+        }
+
+        // Rank and page on the FULLTEXT index alone, then load only the rows of this page
+        List<TaskSearchHit> hits = taskRepository.searchIds(TenantContext.require(), text.trim(),
+                after != null ? after.getAfterScore() : null,
+                after != null ? after.getAfterId() : null,
+                pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        List<TaskSearchHit> page = hits.subList(0, Math.min(pageSize, hits.size()));
+
+        Map<Long, TaskEntity> rows = taskRepository.findAllById(page.stream().map(TaskSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+        List<Task> items = page.stream()
+                .map(hit -> rows.get(hit.getId()))
+                // deleted between the two queries
+                .filter(Objects::nonNull)
+                .map(taskMapper::toDto)
+                .collect(Collectors.toList());
+
+        TaskCursor next = null;
+        if (hasMore) {
+            TaskSearchHit last = page.get(page.size() - 1);
+            next = TaskCursor.ofScore(last.getId(), last.getScore());
+        }
+        return new TaskPage(items, next);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public TaskTreeNode getTaskTree(Long id, Integer depth) {
+        if (depth != null && depth < 0) {
+            throw new InvalidQueryParameterException("depth", String.valueOf(depth));
+        }
+        List<TaskTreeRow> rows = taskRepository.findSubtree(id, depth != null ? depth : Integer.MAX_VALUE);
+
+        // Two passes over the rows (nodes, then links), so their order does not matter: O(n)
+        Map<Long, TaskTreeNode> nodes = LinkedHashMap.newLinkedHashMap(rows.size());
+        for (TaskTreeRow row : rows) {
+            TaskTreeNode node = taskMapper.toTreeNode(row);
+            node.setChildren(new ArrayList<>());
+            nodes.put(node.getId(), node);
+        }
+        TaskTreeNode root = nodes.get(id);
+        if (root == null) {
+            throw new TaskNotFoundException(id);
+        }
+        for (TaskTreeNode node : nodes.values()) {
+            if (node != root) {
+                nodes.get(node.getParentId()).getChildren().add(node);
+            }
+        }
+        return root;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTasks(Consumer<Task> consumer) {
+        // a thread without a tenant would stream every tenant's tasks
+        TenantContext.require();
+        try (Stream<TaskEntity> rows = taskRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(entity -> {
+                consumer.accept(taskMapper.toDto(entity));
+                // Keep the persistence context from growing with the table
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = CacheConfig.TASK_KEY)
     public Task updateTask(Long id, Task updatedTask) {
         TaskEntity existing = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        if (isStale(existing, updatedTask)) {
+            throw new TaskVersionConflictException(id, updatedTask.getVersion(), existing.getVersion());
+        }
+
+        Task previous = taskMapper.toDto(existing);
+        applyUpdate(existing, updatedTask);
+
+        // flush now so the returned DTO (and its ETag) carries the incremented version
+        Task updated = taskMapper.toDto(taskRepository.saveAndFlush(existing));
+        eventPublisher.publishEvent(TaskChangedEvent.updated(previous, updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = CacheConfig.TASK_KEY)
+    public Task patchTask(Long id, TaskPatch patch) {
+        TaskEntity existing = taskRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        if (patch.getVersion() != null && !patch.getVersion().equals(existing.getVersion())) {
+            throw new TaskVersionConflictException(id, patch.getVersion(), existing.getVersion());
+        }
+
+        Task previous = taskMapper.toDto(existing);
+        applyPatch("title", patch.getTitle(), existing::setTitle);
+        applyPatch("description", patch.getDescription(), existing::setDescription);
+        applyPatch("status", patch.getStatus(), status -> existing.setStatus(TaskMapper.toEntityStatus(status)));
+        applyPatch("deadline", patch.getDeadline(), existing::setDeadline);
+        existing.setOverdue(isOverdue(existing));
+
+        // Dirty checking leaves the row alone if nothing actually changed; otherwise only the changed columns are sent
+        Task patched = taskMapper.toDto(taskRepository.saveAndFlush(existing));
+        if (!Objects.equals(patched.getVersion(), previous.getVersion())) {
+            eventPublisher.publishEvent(TaskChangedEvent.updated(previous, patched));
+        }
+        return patched;
+    }
+
+    @Override
+    public TaskBatchResult updateTasks(List<Task> tasks) {
+        checkBatchSize(tasks);
+        TaskBatchResult result = new TaskBatchResult();
+
+        forEachChunk(tasks, (offset, chunk) -> {
+            Map<Long, TaskEntity> existing = taskRepository.findAllById(chunk.stream()
+                            .map(Task::getId)
+                            .filter(Objects::nonNull)
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+
+            List<Integer> indexes = new ArrayList<>();
+            List<TaskEntity> entities = new ArrayList<>();
+            Map<Long, Task> previous = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                String violation = task.getId() == null ? "id: must not be null" : validate(task);
+                TaskEntity entity = task.getId() != null ? existing.get(task.getId()) : null;
+                if (violation == null && entity == null) {
+                    violation = new TaskNotFoundException(task.getId()).getMessage();
+                }
+                if (violation == null && isStale(entity, task)) {
+                    violation = new TaskVersionConflictException(task.getId(), task.getVersion(), entity.getVersion()).getMessage();
+                }
+                if (violation != null) {
+                    result.add(TaskBatchItemResult.failure(offset + i, task.getId(), violation));
+                } else {
+                    previous.putIfAbsent(entity.getId(), taskMapper.toDto(entity));
+                    applyUpdate(entity, task);
+                    indexes.add(offset + i);
+                    entities.add(entity);
+                }
+            }
+            List<TaskEntity> written = writeChunk(indexes, entities, TaskBatchItemResult.Outcome.UPDATED,
+                    entity -> TaskChangedEvent.updated(previous.get(entity.getId()), taskMapper.toDto(entity)), result);
+            evictAll(written.stream().map(TaskEntity::getId).toList());
+        });
+
+        return result.sorted();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = CacheConfig.TASK_KEY)
+    public void deleteTask(Long id) {
+        taskRepository.findById(id).ifPresent(entity -> {
+            if (entity.getSubtaskCount() > 0) {
+                throw new TaskHasSubtasksException(id, entity.getSubtaskCount());
+            }
+            taskRepository.delete(entity);
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(taskMapper.toDto(entity)));
+        });
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = CacheConfig.TASK_KEY)
+    public boolean markOverdue(Long id) {
+        return taskRepository.findById(id)
+                .filter(entity -> !entity.isOverdue() && isOverdue(entity))
+                .map(entity -> {
+                    Task previous = taskMapper.toDto(entity);
+                    entity.setOverdue(true);
+                    // a change like any other: new version, change event, history and outbox
+                    Task marked = taskMapper.toDto(taskRepository.saveAndFlush(entity));
+                    eventPublisher.publishEvent(TaskChangedEvent.updated(previous, marked));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Override
+    public TaskBatchResult deleteTasks(List<Long> ids) {
+        checkBatchSize(ids);
+        TaskBatchResult result = new TaskBatchResult();
+
+        forEachChunk(ids, (offset, chunk) -> {
+            List<Long> requested = chunk.stream().filter(Objects::nonNull).toList();
+            Set<Long> found = new HashSet<>();
+            Map<Long, Integer> withSubtasks = new HashMap<>();
+            if (!requested.isEmpty()) {
+                // the rows are read first so the events carry what was deleted
+                found.addAll(transactionTemplate.execute(status -> {
+                    List<Task> rows = new ArrayList<>();
+                    for (TaskEntity entity : taskRepository.findAllById(requested)) {
+                        if (entity.getSubtaskCount() > 0) {
+                            withSubtasks.put(entity.getId(), entity.getSubtaskCount());
+                        } else {
+                            rows.add(taskMapper.toDto(entity));
+                        }
+                    }
+                    if (!rows.isEmpty()) {
+                        // one DELETE ... WHERE id IN (...) per chunk
+                        taskRepository.deleteAllByIdInBatch(rows.stream().map(Task::getId).toList());
+                        rows.forEach(row -> eventPublisher.publishEvent(TaskChangedEvent.deleted(row)));
+                    }
+                    return rows.stream().map(Task::getId).toList();
+                }));
+                // drop the loaded rows; the bulk delete bypassed the persistence context
+                entityManager.clear();
+                evictAll(found);
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                // remove() so a duplicated id is reported as deleted only once
+                if (id != null && found.remove(id)) {
+                    result.add(TaskBatchItemResult.success(offset + i, id, TaskBatchItemResult.Outcome.DELETED));
+                } else if (id != null && withSubtasks.containsKey(id)) {
+                    result.add(TaskBatchItemResult.failure(offset + i, id,
+                            new TaskHasSubtasksException(id, withSubtasks.get(id)).getMessage()));
+                } else {
+                    result.add(TaskBatchItemResult.failure(offset + i, id,
+                            id == null ? "id: must not be null" : new TaskNotFoundException(id).getMessage()));
+                }
+            }
+        });
 
+        return result.sorted();
+    }
+
+    private TaskEntity newEntity(TaskCreateRequest request) {
+        // Manually map TaskCreateRequest → Task
+        Task task = new Task();
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setDeadline(request.getDeadline());
+        task.setStatus(Task.StatusEnum.PENDING); // default status
+        task.setParentId(request.getParentId());
+
+        TaskEntity entity = taskMapper.toEntity(task);
+        entity.setOverdue(isOverdue(entity));
+        return entity;
+    }
+
+    // A version in the request means "only if nobody changed it since I read it"
+    private static boolean isStale(TaskEntity existing, Task updatedTask) {
+        return updatedTask.getVersion() != null && !updatedTask.getVersion().equals(existing.getVersion());
+    }
+
+    private static void applyUpdate(TaskEntity existing, Task updatedTask) {
         existing.setTitle(updatedTask.getTitle());
         existing.setDescription(updatedTask.getDescription());
-        existing.setStatus(updatedTask.getStatus().toString());
+        existing.setStatus(TaskMapper.toEntityStatus(updatedTask.getStatus()));
         existing.setDeadline(updatedTask.getDeadline());
+        existing.setOverdue(isOverdue(existing));
+    }
 
-        return taskMapper.toDto(taskRepository.save(existing));
+    private static boolean isOverdue(TaskEntity entity) {
+        return !Task.StatusEnum.COMPLETED.getValue().equals(entity.getStatus())
+                && entity.getDeadline() != null && entity.getDeadline().isBefore(OffsetDateTime.now());
     }
 
-    @Override
-    public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+    private static <T> void applyPatch(String field, JsonNullable<T> value, Consumer<T> setter) {
+        if (!value.isPresent()) {
+            return;
+        }
+        if (value.get() == null) {
+            throw new InvalidTaskPatchException(field);
+        }
+        setter.accept(value.get());
+    }
+
+    private String validate(Object item) {
+        String message = validator.validate(item).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return message.isEmpty() ? null : message;
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items.size() > batchProperties.getMaxItems()) {
+            throw new BatchTooLargeException(items.size(), batchProperties.getMaxItems());
+        }
+    }
+
+    private <T> void forEachChunk(List<T> items, BiConsumer<Integer, List<T>> action) {
+        int chunkSize = batchProperties.getChunkSize();
+        for (int offset = 0; offset < items.size(); offset += chunkSize) {
+            action.accept(offset, items.subList(offset, Math.min(offset + chunkSize, items.size())));
+        }
+    }
+
+    /**
+     * Writes one chunk in its own transaction so Hibernate can send it as JDBC batches.
+     * If the chunk is rejected by the database, the rows are retried one by one so the
+     * failure is reported against the item that caused it rather than the whole chunk.
+     * Change events are published inside the writing transaction so that transactional
+     * listeners (the outbox) commit or roll back together with the rows.
+     *
+     * @return the rows as written (with their final id and version)
+     */
+    private List<TaskEntity> writeChunk(List<Integer> indexes, List<TaskEntity> entities, TaskBatchItemResult.Outcome outcome,
+                                        Function<TaskEntity, TaskChangedEvent> toEvent, TaskBatchResult result) {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+        // a rolled back flush leaves its version increments on the entities
+        List<Long> versions = entities.stream().map(TaskEntity::getVersion).toList();
+        try {
+            List<TaskEntity> written = transactionTemplate.execute(status -> {
+                List<TaskEntity> saved = taskRepository.saveAll(entities);
+                taskRepository.flush();
+                saved.forEach(entity -> eventPublisher.publishEvent(toEvent.apply(entity)));
+                return saved;
+            });
+            for (int i = 0; i < written.size(); i++) {
+                result.add(TaskBatchItemResult.success(indexes.get(i), written.get(i).getId(), outcome));
+            }
+            // With open-in-view the request keeps one persistence context; don't let it grow chunk after chunk
+            entityManager.clear();
+            return written;
+        } catch (DataAccessException ex) {
+            // with open-in-view the entities are still managed in the state the failed flush left them in
+            entityManager.clear();
+            List<TaskEntity> written = new ArrayList<>();
+            for (int i = 0; i < entities.size(); i++) {
+                TaskEntity entity = entities.get(i);
+                if (outcome == TaskBatchItemResult.Outcome.CREATED) {
+                    // the rolled back attempt already assigned an id; the row must be inserted as new
+                    entity.setId(null);
+                }
+                // at the version the failed flush bumped it to, an update would fail its own optimistic lock check
+                entity.setVersion(versions.get(i));
+                try {
+                    TaskEntity saved = transactionTemplate.execute(status -> {
+                        TaskEntity row = taskRepository.saveAndFlush(entity);
+                        eventPublisher.publishEvent(toEvent.apply(row));
+                        return row;
+                    });
+                    result.add(TaskBatchItemResult.success(indexes.get(i), saved.getId(), outcome));
+                    written.add(saved);
+                } catch (DataAccessException itemEx) {
+                    result.add(TaskBatchItemResult.failure(indexes.get(i), entity.getId(),
+                            itemEx.getMostSpecificCause().getMessage()));
+                }
+            }
+            return written;
+        }
+    }
+
+    private void evictAll(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        if (cache != null) {
+            ids.forEach(id -> cache.evict(TenantContext.cacheKey(id)));
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return paginationProperties.getDefaultLimit();
+        }
+        if (limit < 1) {
+            throw new InvalidQueryParameterException("limit", String.valueOf(limit));
+        }
+        return Math.min(limit, paginationProperties.getMaxLimit());
     }
 }
@@ -0,0 +1,111 @@
+package com.sdmd.taskmanager.singleflight;
+
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.replica.ReadYourWrites;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight for {@link Coalesced} methods: the first caller runs the method, callers that
+ * arrive with equal arguments while it runs wait for it and get the same result (or exception).
+ * <p>
+ * Flights are keyed by a generation that every committed task change moves on. A read that starts
+ * after a write has committed therefore never joins a flight that may have read the data before
+ * it, while reads in between writes still share one query and one mapping pass. The generation
+ * moves in the first after-commit listener, before the event stream, the cache eviction or the
+ * response can tell anyone of the write, so no caller can observe a write and then join a flight
+ * that began before it. Callers pinned to the primary by {@link ReadYourWrites} only join each
+ * other, as a flight of unpinned callers may be reading a replica that has not seen their write.
+ * <p>
+ * {@code taskmanager.singleflight.calls} counts calls per method, {@code outcome=executed} for the
+ * ones that ran and {@code outcome=coalesced} for the ones served by another caller's flight;
+ * {@code taskmanager.singleflight.in-flight} is the number of flights running.
+ */
+public class CoalescingInterceptor implements MethodInterceptor, MeterBinder {
+
+    // set once the actuator binds us; advisors are created too early to take the registry as a dependency
+    private volatile MeterRegistry registry;
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Counter[]> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("taskmanager.singleflight.in-flight", flights, ConcurrentMap::size).register(registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        // equal arguments from two tenants read different rows
+        FlightKey key = new FlightKey(generation.get(), TenantContext.current(), ReadYourWrites.isPinned(), method,
+                Arrays.asList(invocation.getArguments()));
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(key, mine);
+        if (running != null) {
+            count(method, 1);
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        count(method, 0);
+        try {
+            Object result = invocation.proceed();
+            flights.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            flights.remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate();
+    }
+
+    // flights already running finish for their own callers; new calls start over
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    // outcome 0 = executed, 1 = coalesced
+    private void count(Method method, int outcome) {
+        MeterRegistry meters = registry;
+        if (meters == null) {
+            return;
+        }
+        counters.computeIfAbsent(method, m -> new Counter[]{
+                meters.counter("taskmanager.singleflight.calls", "method", m.getName(), "outcome", "executed"),
+                meters.counter("taskmanager.singleflight.calls", "method", m.getName(), "outcome", "coalesced")
+        })[outcome].increment();
+    }
+
+    // Arrays.asList: arguments may be null
+    private record FlightKey(long generation, String tenantId, boolean primary, Method method, List<Object> arguments) {
+    }
+}
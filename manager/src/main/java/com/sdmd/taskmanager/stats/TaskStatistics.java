@@ -0,0 +1,243 @@
+package com.sdmd.taskmanager.stats;
+
+import com.sdmd.taskmanager.config.StatsProperties;
+import com.sdmd.taskmanager.dto.TaskStats;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.mapper.TaskMapper;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskDayCount;
+import com.sdmd.taskmanager.repository.TaskDeadlineCount;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.repository.TaskStatusCount;
+import com.sdmd.taskmanager.repository.TaskTenantCount;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import com.sdmd.taskmanager.tenant.TenantIdentifierResolver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task counters for {@code GET /tasks/stats}, kept up to date from committed change events so a
+ * read costs the same however many tasks there are.
+ * <p>
+ * A task is overdue once its deadline is before now, as for the deadline scheduler. Open tasks
+ * due later today are kept by exact deadline and move to the overdue counter as the clock passes
+ * them, so no event is needed for a task to become overdue; later days are only counted. Those
+ * counts carry no times, so a rebuild from {@code GROUP BY} queries runs as each day starts, and
+ * periodically to correct drift: writes made by other instances, and changes that commit while a
+ * rebuild is running.
+ * <p>
+ * Counters are kept per tenant; a snapshot covers the tenant of the request asking for it.
+ */
+@Slf4j
+@Component
+public class TaskStatistics {
+
+    private static final Task.StatusEnum CLOSED = Task.StatusEnum.COMPLETED;
+
+    private final TaskRepository taskRepository;
+    private final StatsProperties properties;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    // all guarded by this; counters by tenant id
+    private final Map<String, Counters> tenants = new HashMap<>();
+    private LocalDate today;
+    private Instant reconciledAt;
+
+    @Autowired
+    public TaskStatistics(TaskRepository taskRepository, StatsProperties properties) {
+        // the deadline scheduler's clock, in the zone that defines "today"
+        this(taskRepository, properties, Clock.systemUTC().withZone(properties.getZone()));
+    }
+
+    TaskStatistics(TaskRepository taskRepository, StatsProperties properties, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.today = LocalDate.now(clock);
+    }
+
+    // not before the context is ready: the first run already queries the database
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-stats-"));
+        // the first run loads the counters at startup
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0,
+                properties.getReconcileInterval().toMillis(), TimeUnit.MILLISECONDS);
+        scheduleStartOfDay();
+    }
+
+    // the new day's deadlines are only known to the day until a rebuild reads their times
+    private void scheduleStartOfDay() {
+        Instant next = LocalDate.now(clock).plusDays(1).atStartOfDay(clock.getZone()).toInstant();
+        scheduler.schedule(() -> {
+            reconcileQuietly();
+            scheduleStartOfDay();
+        }, Duration.between(clock.instant(), next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTaskChanged(TaskChangedEvent event) {
+        Instant now = clock.instant();
+        rollOver(now);
+        Counters counters = tenants.computeIfAbsent(bucket(event.getTenantId()), tenantId -> new Counters());
+        if (event.getPrevious() != null) {
+            count(counters, event.getPrevious(), -1, now);
+        }
+        if (event.getTask() != null) {
+            count(counters, event.getTask(), 1, now);
+        }
+    }
+
+    // of the current request's tenant
+    public synchronized TaskStats snapshot() {
+        rollOver(clock.instant());
+        Counters counters = tenants.getOrDefault(bucket(TenantContext.current()), new Counters());
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        long total = 0;
+        for (Task.StatusEnum status : Task.StatusEnum.values()) {
+            statuses.put(status.getValue(), counters.byStatus[status.ordinal()]);
+            total += counters.byStatus[status.ordinal()];
+        }
+        // a day bucket for today only exists between the start of the day and its rebuild
+        long dueToday = counters.openByDay.getOrDefault(today, 0L);
+        for (long due : counters.dueToday.values()) {
+            dueToday += due;
+        }
+        LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        long dueThisWeek = dueToday;
+        for (LocalDate day = today.plusDays(1); !day.isAfter(endOfWeek); day = day.plusDays(1)) {
+            dueThisWeek += counters.openByDay.getOrDefault(day, 0L);
+        }
+        return new TaskStats(total, statuses, counters.overdue, dueToday, dueThisWeek, today, reconciledAt);
+    }
+
+    /**
+     * Rebuilds every tenant's counters from the database. Runs outside any tenant, so the queries
+     * see all of them.
+     */
+    public void reconcile() {
+        Instant now = clock.instant();
+        LocalDate day = LocalDate.ofInstant(now, clock.getZone());
+        OffsetDateTime from = now.atZone(clock.getZone()).toOffsetDateTime();
+        OffsetDateTime tomorrow = day.plusDays(1).atStartOfDay(clock.getZone()).toOffsetDateTime();
+        // queried outside the lock so reads and events are not held up by the database
+        Map<String, Counters> loaded = new HashMap<>();
+        for (TaskStatusCount row : taskRepository.countByStatus()) {
+            loaded.computeIfAbsent(row.getTenantId(), tenantId -> new Counters())
+                    .byStatus[TaskMapper.toDtoStatus(row.getStatus()).ordinal()] += row.getCount();
+        }
+        for (TaskTenantCount row : taskRepository.countOpenDueBefore(CLOSED.getValue(), from)) {
+            loaded.computeIfAbsent(row.getTenantId(), tenantId -> new Counters()).overdue = row.getCount();
+        }
+        for (TaskDeadlineCount row : taskRepository.countOpenByDeadlineBetween(CLOSED.getValue(), from, tomorrow)) {
+            loaded.computeIfAbsent(row.getTenantId(), tenantId -> new Counters())
+                    .dueToday.merge(row.getDeadline().toInstant(), row.getCount(), Long::sum);
+        }
+        for (TaskDayCount row : taskRepository.countOpenByDeadlineDayFrom(CLOSED.getValue(), tomorrow)) {
+            loaded.computeIfAbsent(row.getTenantId(), tenantId -> new Counters())
+                    .openByDay.merge(row.getDay(), row.getCount(), Long::sum);
+        }
+
+        synchronized (this) {
+            tenants.clear();
+            tenants.putAll(loaded);
+            today = day;
+            reconciledAt = clock.instant();
+            rollOver(reconciledAt);
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException ex) {
+            log.warn("Task statistics reconciliation failed; serving incrementally maintained counters", ex);
+        }
+    }
+
+    // Moves the deadlines that have passed, and the buckets of days that have, into the overdue counters
+    private void rollOver(Instant now) {
+        LocalDate current = LocalDate.ofInstant(now, clock.getZone());
+        for (; today.isBefore(current); today = today.plusDays(1)) {
+            for (Counters counters : tenants.values()) {
+                Long due = counters.openByDay.remove(today);
+                if (due != null) {
+                    counters.overdue += due;
+                }
+            }
+        }
+        for (Counters counters : tenants.values()) {
+            Map<Instant, Long> passed = counters.dueToday.headMap(now);
+            for (long due : passed.values()) {
+                counters.overdue += due;
+            }
+            passed.clear();
+        }
+    }
+
+    private void count(Counters counters, Task task, int delta, Instant now) {
+        Task.StatusEnum status = task.getStatus() != null ? task.getStatus() : Task.StatusEnum.PENDING;
+        counters.byStatus[status.ordinal()] += delta;
+        if (status == CLOSED || task.getDeadline() == null) {
+            return;
+        }
+        Instant deadline = task.getDeadline().toInstant();
+        LocalDate day = LocalDate.ofInstant(deadline, clock.getZone());
+        if (deadline.isBefore(now)) {
+            counters.overdue += delta;
+        } else if (day.equals(today)) {
+            counters.dueToday.merge(deadline, (long) delta, TaskStatistics::sum);
+        } else {
+            counters.openByDay.merge(day, (long) delta, TaskStatistics::sum);
+        }
+    }
+
+    // drops buckets that cancel out
+    private static Long sum(Long a, Long b) {
+        return a + b == 0 ? null : a + b;
+    }
+
+    // tasks written outside any tenant are stored with the root identifier
+    private static String bucket(String tenantId) {
+        return tenantId != null ? tenantId : TenantIdentifierResolver.ROOT;
+    }
+
+    private static final class Counters {
+        private final long[] byStatus = new long[Task.StatusEnum.values().length];
+        // open tasks due from now until the end of today, by deadline
+        private final NavigableMap<Instant, Long> dueToday = new TreeMap<>();
+        // open tasks due on later days
+        private final Map<LocalDate, Long> openByDay = new HashMap<>();
+        private long overdue;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sdmd.taskmanager.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * The tenant the current thread works for, set per request by {@link TenantFilter} and around
+ * background work done on a tenant's behalf (such as write-behind batches). Threads without one,
+ * the background jobs, work across all tenants.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    // null when the thread works across all tenants
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * For work that must never run across all tenants, such as native queries Hibernate does not
+     * filter.
+     *
+     * @throws IllegalStateException if the thread works for no tenant
+     */
+    public static String require() {
+        String tenantId = CURRENT.get();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant bound to the current thread");
+        }
+        return tenantId;
+    }
+
+    public static <T> T callAs(String tenantId, Supplier<T> work) {
+        String outer = CURRENT.get();
+        set(tenantId);
+        try {
+            return work.get();
+        } finally {
+            set(outer);
+        }
+    }
+
+    /**
+     * Key of a task in a cache shared by all tenants. Ids are unique across tenants, but a tenant
+     * must not be answered from another tenant's cached copy.
+     */
+    public static Object cacheKey(Long id) {
+        return new CacheKey(CURRENT.get(), id);
+    }
+
+    static void set(String tenantId) {
+        if (tenantId != null) {
+            CURRENT.set(tenantId);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    private record CacheKey(String tenantId, Long id) {
+    }
+}
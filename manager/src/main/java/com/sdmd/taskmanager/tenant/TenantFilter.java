@@ -0,0 +1,173 @@
+package com.sdmd.taskmanager.tenant;
+
+import com.sdmd.taskmanager.config.TenancyProperties;
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.exception.TenantAccessDeniedException;
+import com.sdmd.taskmanager.exception.TenantNotAuthenticatedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs in the security filter chain, after authentication, and binds each request to its tenant
+ * for the rest of the request. The tenant is never taken on the client's word:
+ * <ul>
+ *     <li>an authenticated principal acts for the tenants its {@code TENANT_<id>} authorities
+ *     name; the {@code X-Tenant-ID} header picks one of them, and may be left out when there is
+ *     only one;</li>
+ *     <li>otherwise the header is believed only when the gateway signed it, in
+ *     {@code X-Tenant-Signature}, with the secret it shares with this service;</li>
+ *     <li>otherwise the request belongs to {@code default-tenant}, if one is set for a
+ *     single-tenant deployment, and is refused if not.</li>
+ * </ul>
+ * Missing or bad credentials are answered 401 and a tenant the principal may not use 403, a
+ * malformed header 400, all through the {@code @ControllerAdvice} handlers.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    // also keeps tenant ids clear of TenantIdentifierResolver.ROOT
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}");
+    private static final String HMAC = "HmacSHA256";
+
+    private final TenancyProperties properties;
+    private final List<PathPattern> excluded;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Clock clock;
+
+    public TenantFilter(TenancyProperties properties, HandlerExceptionResolver exceptionResolver) {
+        this(properties, exceptionResolver, Clock.systemUTC());
+    }
+
+    TenantFilter(TenancyProperties properties, HandlerExceptionResolver exceptionResolver, Clock clock) {
+        this.properties = properties;
+        this.excluded = properties.getExcludedPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.exceptionResolver = exceptionResolver;
+        this.clock = clock;
+    }
+
+    /**
+     * The {@code X-Tenant-Signature} value the gateway sends with {@code tenantId} at {@code epochSecond}.
+     */
+    public static String sign(String secret, String tenantId, long epochSecond) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC));
+            byte[] digest = mac.doFinal((tenantId + "." + epochSecond).getBytes(StandardCharsets.UTF_8));
+            return epochSecond + "." + HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        return excluded.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId;
+        try {
+            tenantId = resolve(request);
+        } catch (InvalidQueryParameterException | TenantNotAuthenticatedException | TenantAccessDeniedException ex) {
+            exceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+
+        TenantContext.set(tenantId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.set(null);
+        }
+    }
+
+    private String resolve(HttpServletRequest request) {
+        String header = request.getHeader(properties.getHeader());
+        if (header != null && !TENANT_ID.matcher(header).matches()) {
+            throw new InvalidQueryParameterException(properties.getHeader(), header);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            Set<String> granted = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(authority -> authority != null && authority.startsWith(properties.getAuthorityPrefix()))
+                    .map(authority -> authority.substring(properties.getAuthorityPrefix().length()))
+                    .filter(id -> TENANT_ID.matcher(id).matches())
+                    .collect(Collectors.toSet());
+            if (header != null) {
+                if (!granted.contains(header)) {
+                    throw new TenantAccessDeniedException(header);
+                }
+                return header;
+            }
+            if (granted.isEmpty()) {
+                throw new TenantAccessDeniedException(null);
+            }
+            if (granted.size() > 1) {
+                throw new InvalidQueryParameterException(properties.getHeader(), null);
+            }
+            return granted.iterator().next();
+        }
+
+        if (header != null) {
+            if (!signedByGateway(header, request.getHeader(properties.getSignatureHeader()))) {
+                throw new TenantNotAuthenticatedException();
+            }
+            return header;
+        }
+        if (!StringUtils.hasText(properties.getDefaultTenant())) {
+            throw new TenantNotAuthenticatedException();
+        }
+        return properties.getDefaultTenant();
+    }
+
+    private boolean signedByGateway(String tenantId, String signature) {
+        String secret = properties.getGatewaySecret();
+        if (!StringUtils.hasText(secret) || signature == null) {
+            return false;
+        }
+        int dot = signature.indexOf('.');
+        long signedAt;
+        try {
+            signedAt = Long.parseLong(signature.substring(0, Math.max(dot, 0)));
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        long age = clock.instant().getEpochSecond() - signedAt;
+        // either way, as the gateway's clock may run ahead of ours
+        if (age > properties.getSignatureMaxAge().toSeconds() || age < -properties.getSignatureMaxAge().toSeconds()) {
+            return false;
+        }
+        byte[] expected = sign(secret, tenantId, signedAt).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package com.sdmd.taskmanager.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Hands the {@link TenantContext} tenant to Hibernate, which fills the {@code @TenantId} column on
+ * insert and adds {@code tenant_id = ?} to every entity query. Threads without a tenant get the
+ * root identifier, whose sessions are not filtered. Configured by class name in
+ * {@code spring.jpa.properties}, so every JPA context (test slices included) uses it.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    public static final String ROOT = "*";
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenantId = TenantContext.current();
+        return tenantId != null ? tenantId : ROOT;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        // sessions are bound to transactions, which never span two requests
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return ROOT.equals(tenantId);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sdmd.taskmanager.tenant;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Gives the tenants listed under {@code taskmanager.tenancy.dedicated} connections from a pool of
+ * their own, so a large tenant's load queues for its own connections instead of everyone's; all
+ * other tenants and the background jobs use the shared DataSource. Every pool reaches the same
+ * database: tenants are still separated by {@code tenant_id}.
+ */
+public class TenantRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Map<String, DataSource> dedicated;
+
+    public TenantRoutingDataSource(DataSource shared, Map<String, DataSource> dedicated) {
+        super(shared);
+        this.dedicated = Map.copyOf(dedicated);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private DataSource target() {
+        String tenantId = TenantContext.current();
+        DataSource pool = tenantId != null ? dedicated.get(tenantId) : null;
+        return pool != null ? pool : obtainTargetDataSource();
+    }
+
+    // this bean takes the place of the shared pool, so it closes that as well
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : dedicated.values()) {
+            // possibly behind a bulkhead
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(pool, HikariDataSource.class);
+            if (hikari != null) {
+                hikari.close();
+            }
+        }
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sdmd.taskmanager.tree;
+
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps {@code subtaskCount} and {@code completedSubtaskCount} of parent tasks in step with their
+ * subtasks. Every change event is turned into a delta for the old and the new parent; the deltas
+ * of one transaction are summed per parent and written just before it commits, so a batch of 500
+ * subtasks under one parent costs a single UPDATE of that parent. Reading a tree therefore never
+ * has to count children.
+ * <p>
+ * Parents only get a new version (their cached copy is evicted after commit); no change event is
+ * published for them.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskRollupMaintainer {
+
+    private final TaskRepository taskRepository;
+    private final CacheManager cacheManager;
+
+    // a plain listener: it must run inside the service's transaction
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (parentOf(event.getPrevious()) == null && parentOf(event.getTask()) == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // every service write publishes inside its transaction; stay correct if one does not
+            Rollups rollups = new Rollups();
+            rollups.record(event);
+            rollups.apply();
+            rollups.evict();
+            return;
+        }
+        current().record(event);
+    }
+
+    private Rollups current() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Rollups rollups) {
+                return rollups;
+            }
+        }
+        Rollups rollups = new Rollups();
+        TransactionSynchronizationManager.registerSynchronization(rollups);
+        return rollups;
+    }
+
+    private static Long parentOf(Task task) {
+        return task != null ? task.getParentId() : null;
+    }
+
+    private static int completed(Task task) {
+        return task.getStatus() == Task.StatusEnum.COMPLETED ? 1 : 0;
+    }
+
+    // the pending deltas of one transaction, by parent id: {subtasks, completed}
+    private final class Rollups implements TransactionSynchronization {
+
+        private final Map<Long, int[]> deltas = new HashMap<>();
+
+        void record(TaskChangedEvent event) {
+            Task before = event.getPrevious();
+            Task after = event.getTask();
+            if (parentOf(before) != null) {
+                add(before.getParentId(), -1, -completed(before));
+            }
+            if (parentOf(after) != null) {
+                add(after.getParentId(), 1, completed(after));
+            }
+        }
+
+        private void add(Long parentId, int subtasks, int completed) {
+            int[] delta = deltas.computeIfAbsent(parentId, id -> new int[2]);
+            delta[0] += subtasks;
+            delta[1] += completed;
+        }
+
+        void apply() {
+            deltas.forEach((parentId, delta) -> {
+                // e.g. a status flipped back and forth within the transaction
+                if (delta[0] != 0 || delta[1] != 0) {
+                    taskRepository.adjustRollup(parentId, delta[0], delta[1]);
+                }
+            });
+        }
+
+        void evict() {
+            Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+            if (cache != null) {
+                deltas.keySet().forEach(id -> cache.evict(TenantContext.cacheKey(id)));
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            apply();
+        }
+
+        @Override
+        public void afterCommit() {
+            evict();
+        }
+    }
+}
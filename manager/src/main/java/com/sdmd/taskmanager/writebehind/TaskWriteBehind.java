@@ -0,0 +1,289 @@
+package com.sdmd.taskmanager.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdmd.taskmanager.config.WriteBehindProperties;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskWriteStatus;
+import com.sdmd.taskmanager.exception.ServiceOverloadedException;
+import com.sdmd.taskmanager.exception.TaskBatchIncompleteException;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind for task creation. {@link #enqueue} puts the request on a bounded lock-free queue
+ * and returns a tracking id; one writer thread drains the queue and persists up to
+ * {@code max-batch-size} tasks per call to {@link TaskService#createTasks}, i.e. per chunked,
+ * JDBC-batched transaction. Under load the queue fills while a batch commits, so batches grow
+ * with the arrival rate; {@code linger} lets a partial batch wait briefly for company.
+ * <p>
+ * Accepted tasks are durable only once their status is {@code PERSISTED}: on shutdown the queue
+ * is written out (within {@code shutdown-timeout}), but a crash loses what was still queued.
+ * Statuses are kept in memory on the instance that accepted the request.
+ * <p>
+ * Each task is written for the tenant that sent it: a batch holding several tenants' tasks is
+ * written as one {@code createTasks} call per tenant. A failed call is retried only for the tasks
+ * it did not settle ({@link TaskBatchIncompleteException}), since its earlier chunks may have
+ * committed; tasks acknowledged once are never inserted twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.write-behind", name = "enabled", havingValue = "true")
+public class TaskWriteBehind {
+
+    private record Pending(UUID trackingId, TaskCreateRequest request, String tenantId) {
+    }
+
+    // polls for new work while idle, in case a wake-up raced with going to sleep
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TaskService taskService;
+    private final WriteBehindProperties properties;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    // reserved slots; taken before offering, so the queue never holds more than capacity
+    private final AtomicInteger size = new AtomicInteger();
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final Cache<UUID, TaskWriteStatus> completed;
+    private final ExecutorService writer;
+    private final Counter persisted;
+    private final Counter failed;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private volatile boolean accepting = true;
+    private volatile boolean idle;
+    private volatile Thread writerThread;
+
+    public TaskWriteBehind(TaskService taskService, WriteBehindProperties properties, MeterRegistry registry) {
+        this.taskService = taskService;
+        this.properties = properties;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStatusTtl())
+                .maximumSize(properties.getMaxStatuses())
+                .build();
+        this.writer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("task-write-behind-"));
+        this.persisted = counter(registry, "persisted");
+        this.failed = counter(registry, "failed");
+        this.rejected = counter(registry, "rejected");
+        this.batchSizes = DistributionSummary.builder("taskmanager.write-behind.batch.size")
+                .description("Tasks persisted per group commit")
+                .register(registry);
+        Gauge.builder("taskmanager.write-behind.queue.size", size, AtomicInteger::get)
+                .description("Accepted tasks not yet persisted")
+                .register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("taskmanager.write-behind.tasks")
+                .description("Tasks offered to the write-behind queue, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // not before the context is ready; requests accepted earlier simply wait in the queue
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.execute(this::run);
+    }
+
+    /**
+     * Queues a task for creation.
+     *
+     * @return the tracking id to look the write up with {@link #status}
+     * @throws ServiceOverloadedException when the queue is full or shutting down
+     */
+    public UUID enqueue(TaskCreateRequest request) {
+        int reserved = size.incrementAndGet();
+        // checked after reserving: the writer only stops once it sees no reservations after accepting ended
+        if (reserved > properties.getCapacity() || !accepting) {
+            size.decrementAndGet();
+            rejected.increment();
+            throw new ServiceOverloadedException(properties.getRetryAfter());
+        }
+        UUID trackingId = UUID.randomUUID();
+        queued.add(trackingId);
+        queue.offer(new Pending(trackingId, request, TenantContext.current()));
+        if (idle || reserved >= properties.getMaxBatchSize()) {
+            LockSupport.unpark(writerThread);
+        }
+        return trackingId;
+    }
+
+    public Optional<TaskWriteStatus> status(UUID trackingId) {
+        // the writer records the outcome before it drops the id from the queued set
+        if (queued.contains(trackingId)) {
+            return Optional.of(TaskWriteStatus.queued(trackingId));
+        }
+        return Optional.ofNullable(completed.getIfPresent(trackingId));
+    }
+
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    private void run() {
+        writerThread = Thread.currentThread();
+        List<Pending> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (accepting || size.get() > 0) {
+            drainTo(batch);
+            if (batch.isEmpty()) {
+                awaitWork();
+                continue;
+            }
+            if (batch.size() < properties.getMaxBatchSize() && accepting && !properties.getLinger().isZero()) {
+                LockSupport.parkNanos(properties.getLinger().toNanos());
+                drainTo(batch);
+            }
+            try {
+                write(batch);
+            } catch (Throwable ex) {
+                // the writer must outlive any one batch, or the queue fills until every request is refused
+                log.error("Write-behind batch of {} task(s) failed", batch.size(), ex);
+                abandon(batch, ex);
+            }
+            batch.clear();
+        }
+    }
+
+    private void drainTo(List<Pending> batch) {
+        Pending next;
+        while (batch.size() < properties.getMaxBatchSize() && (next = queue.poll()) != null) {
+            batch.add(next);
+            size.decrementAndGet();
+        }
+    }
+
+    private void awaitWork() {
+        idle = true;
+        if (size.get() == 0 && accepting) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        } else {
+            // a slot is reserved but not offered yet
+            Thread.onSpinWait();
+        }
+        idle = false;
+    }
+
+    private void write(List<Pending> batch) {
+        Map<String, List<Pending>> byTenant = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            byTenant.computeIfAbsent(pending.tenantId(), tenantId -> new ArrayList<>()).add(pending);
+        }
+        byTenant.forEach(this::write);
+    }
+
+    private void write(String tenantId, List<Pending> batch) {
+        // the tasks not settled yet, retried until none are left or the attempts run out
+        List<Pending> unsettled = batch;
+        String error = null;
+        for (int attempt = 1; attempt <= properties.getMaxAttempts() && !unsettled.isEmpty(); attempt++) {
+            List<Pending> requested = unsettled;
+            List<TaskCreateRequest> requests = requested.stream().map(Pending::request).toList();
+            try {
+                // per-item failures come back in the result
+                settle(requested, TenantContext.callAs(tenantId, () -> taskService.createTasks(requests)));
+                unsettled = List.of();
+            } catch (RuntimeException ex) {
+                Throwable cause = ex;
+                if (ex instanceof TaskBatchIncompleteException incomplete) {
+                    // some chunks committed before the failure; only the rest are sent again
+                    settle(requested, incomplete.getSettled());
+                    unsettled = unsettled(requested, incomplete.getSettled());
+                    cause = ex.getCause();
+                }
+                error = cause.getMessage();
+                log.warn("Write-behind batch of {} task(s) failed with {} unwritten (attempt {} of {})",
+                        requested.size(), unsettled.size(), attempt, properties.getMaxAttempts(), ex);
+                if (attempt < properties.getMaxAttempts()) {
+                    LockSupport.parkNanos(properties.getRetryBackoff().toNanos());
+                }
+            }
+        }
+
+        batchSizes.record(batch.size());
+        for (Pending pending : unsettled) {
+            complete(TaskWriteStatus.failed(pending.trackingId(), error));
+        }
+    }
+
+    private void settle(List<Pending> requested, TaskBatchResult result) {
+        for (TaskBatchItemResult item : result.getItems()) {
+            UUID trackingId = requested.get(item.getIndex()).trackingId();
+            complete(item.getOutcome() == TaskBatchItemResult.Outcome.FAILED
+                    ? TaskWriteStatus.failed(trackingId, item.getError())
+                    : TaskWriteStatus.persisted(trackingId, item.getId()));
+        }
+    }
+
+    private static List<Pending> unsettled(List<Pending> requested, TaskBatchResult settled) {
+        boolean[] done = new boolean[requested.size()];
+        settled.getItems().forEach(item -> done[item.getIndex()] = true);
+        List<Pending> rest = new ArrayList<>();
+        for (int i = 0; i < requested.size(); i++) {
+            if (!done[i]) {
+                rest.add(requested.get(i));
+            }
+        }
+        return rest;
+    }
+
+    // whatever state they reached, the tasks of a batch that failed unexpectedly stop waiting
+    private void abandon(List<Pending> batch, Throwable failure) {
+        for (Pending pending : batch) {
+            if (queued.contains(pending.trackingId())) {
+                complete(TaskWriteStatus.failed(pending.trackingId(), String.valueOf(failure.getMessage())));
+            }
+        }
+    }
+
+    private void complete(TaskWriteStatus status) {
+        (status.getState() == TaskWriteStatus.State.PERSISTED ? persisted : failed).increment();
+        completed.put(status.getTrackingId(), status);
+        queued.remove(status.getTrackingId());
+    }
+
+    /**
+     * Stops accepting and writes out everything already queued. Runs before the TaskService and
+     * the DataSource are destroyed, since this bean depends on them, and after the web server
+     * has stopped taking requests.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+        LockSupport.unpark(writerThread);
+        writer.shutdown();
+        if (!writer.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.error("Write-behind queue not flushed within {}, {} accepted task(s) are lost",
+                    properties.getShutdownTimeout(), size.get());
+            writer.shutdownNow();
+        }
+    }
+}
@@ -41,6 +41,7 @@ public class ManagerApplicationAcceptTests {
         registry.add("spring.datasource.url", mysqlContainer::getJdbcUrl);
         registry.add("spring.datasource.username", mysqlContainer::getUsername);
         registry.add("spring.datasource.password", mysqlContainer::getPassword);
+        registry.add("taskmanager.tenancy.default-tenant", () -> "default");
     }
 
     @Autowired
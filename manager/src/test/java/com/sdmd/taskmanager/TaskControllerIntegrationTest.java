@@ -1,10 +1,33 @@
 package com.sdmd.taskmanager.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sdmd.taskmanager.config.IdempotencyProperties;
+import com.sdmd.taskmanager.config.JacksonConfig;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
 import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskCursor;
+import com.sdmd.taskmanager.dto.TaskHistoryEntry;
+import com.sdmd.taskmanager.dto.TaskHistoryPage;
+import com.sdmd.taskmanager.dto.TaskPage;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.dto.TaskSort;
+import com.sdmd.taskmanager.dto.TaskSummaryPage;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.exception.BatchTooLargeException;
 import com.sdmd.taskmanager.exception.GlobalExceptionHandler;
+import com.sdmd.taskmanager.exception.InvalidTaskPatchException;
+import com.sdmd.taskmanager.exception.TaskHistoryNotFoundException;
 import com.sdmd.taskmanager.exception.TaskNotFoundException;
+import com.sdmd.taskmanager.exception.TaskVersionConflictException;
+import com.sdmd.taskmanager.history.TaskHistoryReader;
+import com.sdmd.taskmanager.idempotency.IdempotencyCoordinator;
+import com.sdmd.taskmanager.idempotency.InMemoryIdempotencyStore;
 import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.model.TaskSummary;
+import com.sdmd.taskmanager.model.TaskTreeNode;
 import com.sdmd.taskmanager.service.TaskService;
 import org.apache.catalina.security.SecurityConfig;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,20 +43,28 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.reset;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(TaskController.class)
-@Import({GlobalExceptionHandler.class, SecurityConfig.class})
+@WebMvcTest(controllers = TaskController.class, properties = "taskmanager.tenancy.default-tenant=default")
+@Import({GlobalExceptionHandler.class, SecurityConfig.class, JacksonConfig.class})
 @AutoConfigureMockMvc(addFilters = true)
 @ImportAutoConfiguration(exclude = SecurityAutoConfiguration.class)
 
@@ -45,6 +76,9 @@ public class TaskControllerIntegrationTest {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskHistoryReader taskHistoryReader;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -56,11 +90,23 @@ public class TaskControllerIntegrationTest {
         public TaskService taskService() {
             return Mockito.mock(TaskService.class);
         }
+
+        @Bean
+        public TaskHistoryReader taskHistoryReader() {
+            return Mockito.mock(TaskHistoryReader.class);
+        }
+
+        @Bean
+        public IdempotencyCoordinator idempotencyCoordinator() {
+            IdempotencyProperties properties = new IdempotencyProperties();
+            return new IdempotencyCoordinator(new InMemoryIdempotencyStore(properties), properties,
+                    new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+        }
     }
 
     @BeforeEach
     void setup() {
-        reset(taskService);
+        reset(taskService, taskHistoryReader);
         task = new Task();
         task.setId(1L);
         task.setTitle("Test Task");
@@ -93,6 +139,40 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.url").value("http://localhost/tasks/10"));
     }
 
+    @Test
+    void createTask_IdempotencyKeyReplaysTheFirstResponse() throws Exception {
+        TaskCreateRequest request = new TaskCreateRequest("New Task", "New Desc", OffsetDateTime.parse("2030-01-01T00:00:00Z"));
+        Task savedTask = new Task();
+        savedTask.setId(11L);
+        savedTask.setVersion(0L);
+        Mockito.when(taskService.createTask(any(TaskCreateRequest.class))).thenReturn(savedTask);
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-once")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-once")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("Location", "http://localhost/tasks/11"))
+                .andExpect(header().string("ETag", "W/\"0\""))
+                .andExpect(jsonPath("$.id").value(11));
+        Mockito.verify(taskService, Mockito.times(1)).createTask(any(TaskCreateRequest.class));
+
+        request.setTitle("Another Task");
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-once")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+    }
+
     @Test
     void createTask_ValidationFailure() throws Exception {
         TaskCreateRequest invalidRequest = new TaskCreateRequest(); // missing title and description
@@ -108,6 +188,35 @@ public class TaskControllerIntegrationTest {
     }
 
 
+    @Test
+    void createTasks_Batch() throws Exception {
+        TaskBatchResult result = new TaskBatchResult();
+        result.add(TaskBatchItemResult.success(0, 10L, TaskBatchItemResult.Outcome.CREATED));
+        result.add(TaskBatchItemResult.failure(1, null, "title: must not be null"));
+        Mockito.when(taskService.createTasks(any())).thenReturn(result);
+
+        mockMvc.perform(post("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"a\",\"description\":\"b\"},{\"description\":\"b\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(10))
+                .andExpect(jsonPath("$.items[1].outcome").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].error").value("title: must not be null"));
+    }
+
+    @Test
+    void deleteTasks_BatchTooLarge() throws Exception {
+        Mockito.when(taskService.deleteTasks(any())).thenThrow(new BatchTooLargeException(3, 2));
+
+        mockMvc.perform(delete("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2,3]"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.message").value("Batch of 3 items exceeds the limit of 2."));
+    }
+
     @Test
     void getTask_Success() throws Exception {
         Mockito.when(taskService.getTaskById(1L)).thenReturn(task);
@@ -119,6 +228,64 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.description").value(task.getDescription()));
     }
 
+    @Test
+    void getTasks_Cbor() throws Exception {
+        Mockito.when(taskService.getTaskById(1L)).thenReturn(task);
+        Mockito.when(taskService.getTasks(TaskQuery.all(), null, null)).thenReturn(new TaskPage(List.of(task), null));
+        ObjectMapper cbor = new CBORMapper().findAndRegisterModules();
+
+        byte[] single = mockMvc.perform(get("/tasks/{id}", 1L).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Task decoded = cbor.readValue(single, Task.class);
+        assertThat(decoded.getTitle()).isEqualTo(task.getTitle());
+        assertThat(decoded.getDeadline().toInstant()).isEqualTo(task.getDeadline().toInstant());
+
+        byte[] list = mockMvc.perform(get("/tasks").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(cbor.readValue(list, Task[].class)).extracting(Task::getId).containsExactly(1L);
+    }
+
+    @Test
+    void getTask_ETagAndNotModified() throws Exception {
+        task.setVersion(3L);
+        Mockito.when(taskService.getTaskById(1L)).thenReturn(task);
+        Mockito.when(taskService.getTaskVersion(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/tasks/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""));
+
+        mockMvc.perform(get("/tasks/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"3\""));
+
+        // only the unconditional GET loaded the task
+        Mockito.verify(taskService, Mockito.times(1)).getTaskById(1L);
+    }
+
+    @Test
+    void getAllTasks_NotModified() throws Exception {
+        task.setVersion(1L);
+        Mockito.when(taskService.getTasks(TaskQuery.all(), null, null)).thenReturn(new TaskPage(List.of(task), null));
+
+        String etag = mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        // weak, so the container may still gzip the page
+        assertThat(etag).startsWith("W/\"");
+
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void getTask_NotFound() throws Exception {
         long invalidId = 99L;
@@ -133,18 +300,183 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Task with id " + invalidId + " not found."));
     }
 
+    @Test
+    void getTaskTree_NestsSubtasksAndAnswersConditionalRequests() throws Exception {
+        TaskTreeNode child = new TaskTreeNode().id(2L).parentId(1L).title("child").version(0L).children(new ArrayList<>());
+        TaskTreeNode root = new TaskTreeNode().id(1L).title("root").version(3L).subtaskCount(1).completedSubtaskCount(0)
+                .children(new ArrayList<>(List.of(child)));
+        Mockito.when(taskService.getTaskTree(1L, null)).thenReturn(root);
+
+        String etag = mockMvc.perform(get("/tasks/{id}/tree", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subtaskCount").value(1))
+                .andExpect(jsonPath("$.children[0].id").value(2))
+                .andExpect(jsonPath("$.children[0].children").isEmpty())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tasks/{id}/tree", 1L).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        child.setVersion(1L);
+        mockMvc.perform(get("/tasks/{id}/tree", 1L).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTaskHistory_PagesNewestFirstAndReadsAsOf() throws Exception {
+        TaskHistoryEntry update = new TaskHistoryEntry(2L, TaskChangedEvent.Type.UPDATED, Instant.parse("2026-01-02T00:00:00Z"),
+                objectMapper.readTree("{\"title\":\"Renamed\"}"));
+        Mockito.when(taskHistoryReader.getHistory(1L, null, 1)).thenReturn(new TaskHistoryPage(List.of(update), 2L));
+
+        mockMvc.perform(get("/tasks/{id}/history", 1L).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "2"))
+                .andExpect(jsonPath("$[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$[0].changes.title").value("Renamed"))
+                .andExpect(jsonPath("$[0].changes.description").doesNotExist());
+
+        OffsetDateTime asOf = OffsetDateTime.parse("2026-01-01T12:00:00Z");
+        Mockito.when(taskHistoryReader.getTaskAsOf(1L, asOf)).thenReturn(task);
+        mockMvc.perform(get("/tasks/{id}", 1L).param("asOf", "2026-01-01T12:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.title").value(task.getTitle()));
+        Mockito.verify(taskService, Mockito.never()).getTaskById(1L);
+
+        Mockito.when(taskHistoryReader.getTaskAsOf(eq(2L), any())).thenThrow(new TaskHistoryNotFoundException(2L, asOf));
+        mockMvc.perform(get("/tasks/{id}", 2L).param("asOf", "2026-01-01T12:00:00Z"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    void getWriteStatus_NotFoundWithoutWriteBehind() throws Exception {
+        mockMvc.perform(get("/tasks/writes/{trackingId}", "1b4e28ba-2fa1-11d2-883f-0016d3cca427"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
     @Test
     void getAllTasks_Success() throws Exception {
         List<Task> taskList = new ArrayList<>();
         taskList.add(task);
-        Mockito.when(taskService.getAllTasks()).thenReturn(taskList);
+        Mockito.when(taskService.getTasks(TaskQuery.all(), null, null)).thenReturn(new TaskPage(taskList, null));
 
         mockMvc.perform(get("/tasks"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(task.getId()))
                 .andExpect(jsonPath("$[0].title").value(task.getTitle()));
     }
 
+    @Test
+    void getAllTasks_NextPage() throws Exception {
+        TaskCursor cursor = new TaskCursor(1L);
+        Mockito.when(taskService.getTasks(TaskQuery.all(), null, 1)).thenReturn(new TaskPage(List.of(task), cursor));
+        Mockito.when(taskService.getTasks(TaskQuery.all(), cursor, 1)).thenReturn(new TaskPage(List.of(), null));
+
+        String next = mockMvc.perform(get("/tasks?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", cursor.encode()))
+                .andExpect(header().string("Link", "<http://localhost/tasks?limit=1&after=" + cursor.encode() + ">; rel=\"next\""))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/tasks").param("limit", "1").param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void getAllTasks_SelectedFields() throws Exception {
+        TaskSummary summary = new TaskSummary().id(1L).title("Test Task")
+                .status(TaskSummary.StatusEnum.PENDING).deadline(task.getDeadline()).version(2L);
+        Mockito.when(taskService.getTaskSummaries(TaskQuery.all(), null, null)).thenReturn(new TaskSummaryPage(List.of(summary), null));
+
+        mockMvc.perform(get("/tasks").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Test Task"))
+                .andExpect(jsonPath("$[0].status").doesNotExist())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist());
+
+        mockMvc.perform(get("/tasks").param("fields", "id,description"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllTasks_FilteredAndSorted() throws Exception {
+        TaskQuery query = TaskQuery.builder()
+                .statuses(Set.of(Task.StatusEnum.IN_PROGRESS))
+                .deadlineFrom(OffsetDateTime.parse("2025-01-06T00:00:00Z"))
+                .deadlineTo(OffsetDateTime.parse("2025-01-13T00:00:00Z"))
+                .sort(TaskSort.DEADLINE_DESC)
+                .build();
+        Mockito.when(taskService.getTasks(query, null, null)).thenReturn(new TaskPage(List.of(task), null));
+
+        mockMvc.perform(get("/tasks")
+                        .param("status", "In_Progress")
+                        .param("deadlineFrom", "2025-01-06T00:00:00Z")
+                        .param("deadlineTo", "2025-01-13T00:00:00Z")
+                        .param("sort", "-deadline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(task.getId()));
+    }
+
+    @Test
+    void getAllTasks_InvalidFilter() throws Exception {
+        mockMvc.perform(get("/tasks").param("status", "Done"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'Done' for parameter 'status'."));
+
+        mockMvc.perform(get("/tasks").param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'title' for parameter 'sort'."));
+
+        mockMvc.perform(get("/tasks").param("deadlineFrom", "tomorrow"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'tomorrow' for parameter 'deadlineFrom'."));
+    }
+
+    @Test
+    void getAllTasks_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/tasks").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'not-a-cursor' for parameter 'after'."));
+    }
+
+    @Test
+    void searchTasks_PagesByScore() throws Exception {
+        TaskCursor cursor = TaskCursor.ofScore(1L, 0.4529735743999481);
+        Mockito.when(taskService.searchTasks("report", null, 1)).thenReturn(new TaskPage(List.of(task), cursor));
+        Mockito.when(taskService.searchTasks("report", cursor, 1)).thenReturn(new TaskPage(List.of(), null));
+
+        String next = mockMvc.perform(get("/tasks/search?q=report&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(task.getId()))
+                .andExpect(header().string("Link", "<http://localhost/tasks/search?q=report&limit=1&after=" + cursor.encode() + ">; rel=\"next\""))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/tasks/search").param("q", "report").param("limit", "1").param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void searchTasks_BlankQuery() throws Exception {
+        mockMvc.perform(get("/tasks/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value ' ' for parameter 'q'."));
+        mockMvc.perform(get("/tasks/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Missing required parameter 'q'."));
+    }
+
     @Test
     void updateTask_Success() throws Exception {
         Task updated = new Task();
@@ -165,6 +497,29 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value(Task.StatusEnum.IN_PROGRESS.getValue()));
     }
 
+    @Test
+    void updateTask_IfMatchConflict() throws Exception {
+        Task updateRequest = new Task();
+        updateRequest.setTitle("Title");
+        updateRequest.setDescription("Desc");
+
+        Mockito.when(taskService.updateTask(eq(1L), argThat(t -> Long.valueOf(2L).equals(t.getVersion()))))
+                .thenThrow(new TaskVersionConflictException(1L, 2L, 3L));
+
+        mockMvc.perform(put("/tasks/{id}", 1L)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Task with id 1 is at version 3, not 2."));
+
+        mockMvc.perform(put("/tasks/{id}", 1L)
+                        .header("If-Match", "W/\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void updateTask_NotFound() throws Exception {
         long invalidId = 99L;
@@ -182,6 +537,39 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Task with id " + invalidId + " not found."));
     }
 
+    @Test
+    void patchTask_OnlySentFields() throws Exception {
+        Task patched = new Task().id(1L).title("Title").description("Desc")
+                .status(Task.StatusEnum.COMPLETED).deadline(OffsetDateTime.now()).version(4L);
+
+        Mockito.when(taskService.patchTask(eq(1L), argThat((TaskPatch patch) -> patch.getStatus().isPresent()
+                        && patch.getStatus().get() == Task.StatusEnum.COMPLETED
+                        && !patch.getTitle().isPresent()
+                        && Long.valueOf(3L).equals(patch.getVersion()))))
+                .thenReturn(patched);
+
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .header("If-Match", "W/\"3\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"status\":\"Completed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"4\""))
+                .andExpect(jsonPath("$.status").value(Task.StatusEnum.COMPLETED.getValue()));
+    }
+
+    @Test
+    void patchTask_NullField() throws Exception {
+        Mockito.when(taskService.patchTask(eq(1L), argThat((TaskPatch patch) -> patch.getTitle().isPresent()
+                        && patch.getTitle().get() == null)))
+                .thenThrow(new InvalidTaskPatchException("title"));
+
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Field 'title' cannot be removed or set to null."));
+    }
+
     @Test
     void deleteTask_Success() throws Exception {
         Mockito.doNothing().when(taskService).deleteTask(1L);
@@ -0,0 +1,46 @@
+package com.sdmd.taskmanager.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class BulkheadDataSourceTest {
+
+    private BulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setup() throws Exception {
+        DataSource target = Mockito.mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        bulkhead = new BulkheadDataSource(target, 1, 1, 50);
+    }
+
+    @Test
+    void releasesPermitOnClose() throws Exception {
+        Connection connection = bulkhead.getConnection();
+        assertThat(bulkhead.getAvailablePermits()).isZero();
+
+        connection.close();
+        connection.close();
+
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void timesOutWhenNoPermitIsReleased() throws Exception {
+        bulkhead.getConnection();
+
+        assertThatThrownBy(() -> bulkhead.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(bulkhead.getWaiting()).isZero();
+    }
+}
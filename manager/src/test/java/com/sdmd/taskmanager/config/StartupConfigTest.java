@@ -0,0 +1,48 @@
+package com.sdmd.taskmanager.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupConfigTest {
+
+    @Test
+    void makesBeansFromListedPackagesLazy() {
+        DefaultListableBeanFactory beanFactory = beanFactory();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("taskmanager.startup.lazy-packages[0]", "org.springdoc");
+
+        StartupConfig.lazyPackagesPostProcessor(environment).postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("openApi").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("taskController").isLazyInit()).isFalse();
+        // a package prefix, not a string prefix
+        assertThat(beanFactory.getBeanDefinition("lookalike").isLazyInit()).isFalse();
+    }
+
+    @Test
+    void leavesEverythingEagerByDefault() {
+        DefaultListableBeanFactory beanFactory = beanFactory();
+
+        StartupConfig.lazyPackagesPostProcessor(new MockEnvironment()).postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("openApi").isLazyInit()).isFalse();
+    }
+
+    private DefaultListableBeanFactory beanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("openApi", definition("org.springdoc.webmvc.api.OpenApiWebMvcResource"));
+        beanFactory.registerBeanDefinition("taskController", definition("com.sdmd.taskmanager.controller.TaskController"));
+        beanFactory.registerBeanDefinition("lookalike", definition("org.springdocs.Other"));
+        return beanFactory;
+    }
+
+    private GenericBeanDefinition definition(String className) {
+        GenericBeanDefinition definition = new GenericBeanDefinition();
+        definition.setBeanClassName(className);
+        return definition;
+    }
+}
@@ -0,0 +1,169 @@
+package com.sdmd.taskmanager.deadline;
+
+import com.sdmd.taskmanager.config.DeadlineProperties;
+import com.sdmd.taskmanager.entity.TaskDeadlineWatermarkEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskDeadline;
+import com.sdmd.taskmanager.repository.TaskDeadlineWatermarkRepository;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskDeadlineSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-08T12:00:00Z");
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskDeadlineWatermarkRepository watermarkRepository = mock(TaskDeadlineWatermarkRepository.class);
+    private final List<TaskDeadlineEvent> fired = new ArrayList<>();
+    private final MutableClock clock = new MutableClock(NOW);
+    private TaskDeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setReminderLead(Duration.ofMinutes(15));
+        properties.setFireBatchSize(100);
+        scheduler = new TaskDeadlineScheduler(taskRepository, watermarkRepository,
+                event -> fired.add((TaskDeadlineEvent) event), properties, clock);
+        when(watermarkRepository.findById(TaskDeadlineScheduler.WATERMARK)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void firesReminderThenOverdueAndPersistsTheWatermark() {
+        deadlines(row(1L, NOW.plus(Duration.ofMinutes(20))));
+
+        scheduler.tick();
+        assertThat(fired).isEmpty();
+
+        clock.instant = NOW.plus(Duration.ofMinutes(6));
+        scheduler.tick();
+        assertThat(fired).containsExactly(new TaskDeadlineEvent(TaskDeadlineEvent.Type.REMINDER, 1L, NOW.plus(Duration.ofMinutes(20))));
+
+        clock.instant = NOW.plus(Duration.ofMinutes(21));
+        scheduler.tick();
+        assertThat(fired).extracting(TaskDeadlineEvent::getType)
+                .containsExactly(TaskDeadlineEvent.Type.REMINDER, TaskDeadlineEvent.Type.OVERDUE);
+        verify(watermarkRepository).save(eq(watermark(NOW.plus(Duration.ofMinutes(21)))));
+    }
+
+    @Test
+    void resumesFromThePersistedWatermark() {
+        Instant watermark = NOW.minus(Duration.ofMinutes(10));
+        when(watermarkRepository.findById(TaskDeadlineScheduler.WATERMARK)).thenReturn(Optional.of(watermark(watermark)));
+        // missed while the application was down
+        deadlines(row(1L, NOW.minus(Duration.ofMinutes(5))));
+
+        scheduler.tick();
+
+        verify(taskRepository).findDeadlinesBetween(anyCollection(), eq(watermark.atOffset(ZoneOffset.UTC)), any());
+        assertThat(fired).extracting(TaskDeadlineEvent::getType).containsExactly(TaskDeadlineEvent.Type.OVERDUE);
+    }
+
+    @Test
+    void followsRescheduledAndCompletedTasks() {
+        Instant deadline = NOW.plus(Duration.ofMinutes(30));
+        deadlines(row(1L, deadline), row(2L, deadline));
+        scheduler.tick();
+
+        Task before = task(1L, Task.StatusEnum.PENDING, deadline);
+        Task later = task(1L, Task.StatusEnum.PENDING, deadline.plus(Duration.ofMinutes(20)));
+        scheduler.onTaskChanged(TaskChangedEvent.updated(before, later));
+        scheduler.onTaskChanged(TaskChangedEvent.updated(task(2L, Task.StatusEnum.PENDING, deadline),
+                task(2L, Task.StatusEnum.COMPLETED, deadline)));
+        // moved into the past: overdue straight away
+        scheduler.onTaskChanged(TaskChangedEvent.created(task(3L, Task.StatusEnum.PENDING, NOW.minus(Duration.ofDays(1)))));
+
+        clock.instant = NOW.plus(Duration.ofMinutes(36));
+        scheduler.tick();
+
+        assertThat(fired).containsExactly(
+                new TaskDeadlineEvent(TaskDeadlineEvent.Type.OVERDUE, 3L, NOW.minus(Duration.ofDays(1))),
+                new TaskDeadlineEvent(TaskDeadlineEvent.Type.REMINDER, 1L, later.getDeadline().toInstant()));
+    }
+
+    @Test
+    void firesManyTasksSharingADeadlineInBatches() {
+        Instant deadline = NOW.plus(Duration.ofMinutes(30));
+        deadlines(LongStream.rangeClosed(1, 2500).mapToObj(id -> row(id, deadline)).toArray(TaskDeadline[]::new));
+        scheduler.tick();
+
+        clock.instant = deadline.plusSeconds(1);
+        scheduler.tick();
+
+        assertThat(fired).hasSize(5000);
+        assertThat(fired.subList(2500, 5000)).allMatch(event -> event.getType() == TaskDeadlineEvent.Type.OVERDUE);
+    }
+
+    private void deadlines(TaskDeadline... rows) {
+        when(taskRepository.findDeadlinesBetween(anyCollection(), any(), any())).thenReturn(List.of(rows)).thenReturn(List.of());
+    }
+
+    private static TaskDeadline row(Long id, Instant deadline) {
+        return new TaskDeadline() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public OffsetDateTime getDeadline() {
+                return deadline.atOffset(ZoneOffset.UTC);
+            }
+        };
+    }
+
+    private static Task task(Long id, Task.StatusEnum status, Instant deadline) {
+        return new Task().id(id).title("t").description("d").status(status).deadline(deadline.atOffset(ZoneOffset.UTC));
+    }
+
+    private static TaskDeadlineWatermarkEntity watermark(Instant firedUntil) {
+        TaskDeadlineWatermarkEntity entity = new TaskDeadlineWatermarkEntity();
+        entity.setName(TaskDeadlineScheduler.WATERMARK);
+        entity.setFiredUntil(firedUntil);
+        return entity;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
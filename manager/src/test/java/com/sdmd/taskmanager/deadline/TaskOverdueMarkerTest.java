@@ -0,0 +1,108 @@
+package com.sdmd.taskmanager.deadline;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+@Import({TaskOverdueMarker.class, TaskServiceImpl.class, TaskMapperImpl.class, PaginationProperties.class,
+        BatchProperties.class, CacheConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class})
+public class TaskOverdueMarkerTest {
+
+    @Autowired
+    private TaskOverdueMarker marker;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void flagsTheTaskForItsTenantAndClearsTheFlagWhenTheDeadlineMoves() {
+        OffsetDateTime soon = OffsetDateTime.now().plusNanos(50_000_000);
+        Task task = TenantContext.callAs("acme", () -> taskService.createTask(new TaskCreateRequest("report", "d", soon)));
+        // read once, so the cached copy has to be replaced
+        assertThat(TenantContext.callAs("acme", () -> taskService.getTaskById(task.getId())).getOverdue()).isFalse();
+        await(soon);
+
+        marker.onDeadline(new TaskDeadlineEvent(TaskDeadlineEvent.Type.OVERDUE, task.getId(), soon.toInstant()));
+
+        Task flagged = TenantContext.callAs("acme", () -> taskService.getTaskById(task.getId()));
+        assertThat(flagged.getOverdue()).isTrue();
+        assertThat(flagged.getVersion()).isGreaterThan(task.getVersion());
+        // the update event is what reaches the tenant's event stream
+        assertThat(events.stream(TaskChangedEvent.class)
+                .filter(event -> event.getType() == TaskChangedEvent.Type.UPDATED))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getTenantId()).isEqualTo("acme");
+                    assertThat(event.getTask().getOverdue()).isTrue();
+                });
+
+        // a repeated event changes nothing
+        marker.onDeadline(new TaskDeadlineEvent(TaskDeadlineEvent.Type.OVERDUE, task.getId(), soon.toInstant()));
+        assertThat(TenantContext.callAs("acme", () -> taskService.getTaskById(task.getId())).getVersion())
+                .isEqualTo(flagged.getVersion());
+
+        TaskPatch later = new TaskPatch();
+        later.setDeadline(JsonNullable.of(OffsetDateTime.now().plusDays(1)));
+        assertThat(TenantContext.callAs("acme", () -> taskService.patchTask(task.getId(), later)).getOverdue()).isFalse();
+    }
+
+    @Test
+    void ignoresTasksCompletedOrMovedAheadSinceTheEventWasQueued() {
+        Task task = taskService.createTask(new TaskCreateRequest("report", "d", OffsetDateTime.now().plusDays(1)));
+
+        marker.onDeadline(new TaskDeadlineEvent(TaskDeadlineEvent.Type.OVERDUE, task.getId(),
+                OffsetDateTime.now().minusMinutes(1).toInstant()));
+        marker.onDeadline(new TaskDeadlineEvent(TaskDeadlineEvent.Type.REMINDER, task.getId(),
+                OffsetDateTime.now().toInstant()));
+
+        assertThat(taskService.getTaskById(task.getId()).getOverdue()).isFalse();
+        assertThat(taskService.getTaskById(task.getId()).getVersion()).isEqualTo(task.getVersion());
+    }
+
+    private static void await(OffsetDateTime deadline) {
+        while (!OffsetDateTime.now().isAfter(deadline)) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sdmd.taskmanager.event;
+
+import com.sdmd.taskmanager.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskEventRingBufferTest {
+
+    @Test
+    void replaysEventsAfterLastSeenSequence() {
+        TaskEventRingBuffer buffer = new TaskEventRingBuffer(4);
+        for (long id = 1; id <= 3; id++) {
+            buffer.append(TaskChangedEvent.deleted(new Task().id(id)));
+        }
+
+        Optional<List<TaskEventRingBuffer.Entry>> missed = buffer.after(1);
+
+        assertThat(missed).isPresent();
+        assertThat(missed.get()).extracting(TaskEventRingBuffer.Entry::sequence).containsExactly(2L, 3L);
+        assertThat(buffer.after(3)).contains(List.of());
+    }
+
+    @Test
+    void reportsGapOnceEventsHaveBeenOverwritten() {
+        TaskEventRingBuffer buffer = new TaskEventRingBuffer(2);
+        for (long id = 1; id <= 5; id++) {
+            buffer.append(TaskChangedEvent.deleted(new Task().id(id)));
+        }
+
+        assertThat(buffer.after(3).orElseThrow()).extracting(entry -> entry.event().getTaskId()).containsExactly(4L, 5L);
+        assertThat(buffer.after(2)).isEmpty();
+        assertThat(buffer.after(-1)).isEmpty();
+    }
+
+    @Test
+    void reportsGapForASequenceAheadOfTheBuffer() {
+        // e.g. a client reconnecting after a restart, or to another instance
+        TaskEventRingBuffer buffer = new TaskEventRingBuffer(4);
+        assertThat(buffer.after(7)).isEmpty();
+
+        buffer.append(TaskChangedEvent.deleted(new Task().id(1L)));
+        assertThat(buffer.after(buffer.lastSequence() + 1)).isEmpty();
+        assertThat(buffer.after(buffer.lastSequence())).contains(List.of());
+    }
+
+    @Test
+    void filtersReplayedEventsBeforeTheyAreCounted() {
+        TaskEventRingBuffer buffer = new TaskEventRingBuffer(8);
+        for (long id = 1; id <= 6; id++) {
+            buffer.append(TaskChangedEvent.deleted(new Task().id(id)));
+        }
+
+        // e.g. one tenant's events among everyone's traffic
+        Optional<List<TaskEventRingBuffer.Entry>> missed = buffer.after(1, event -> event.getTaskId() % 3 == 0);
+
+        assertThat(missed.orElseThrow()).extracting(TaskEventRingBuffer.Entry::sequence).containsExactly(3L, 6L);
+        assertThat(buffer.after(0, event -> false)).contains(List.of());
+    }
+}
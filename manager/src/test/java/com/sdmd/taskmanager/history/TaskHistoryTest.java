@@ -0,0 +1,209 @@
+package com.sdmd.taskmanager.history;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.HistoryProperties;
+import com.sdmd.taskmanager.config.JacksonConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskHistoryEntry;
+import com.sdmd.taskmanager.dto.TaskHistoryPage;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.entity.TaskHistoryEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.exception.TaskHistoryNotFoundException;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskHistoryRepository;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskServiceImpl.class, TaskMapperImpl.class, TaskHistoryWriter.class, TaskHistoryReader.class,
+        TaskHistoryCompactor.class, HistoryProperties.class, PaginationProperties.class, BatchProperties.class,
+        CacheConfig.class, JacksonConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+public class TaskHistoryTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskHistoryReader reader;
+
+    @Autowired
+    private TaskHistoryCompactor compactor;
+
+    @Autowired
+    private HistoryProperties properties;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskHistoryRepository historyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        historyRepository.deleteAll();
+        properties.setSnapshotInterval(2);
+    }
+
+    @Test
+    void recordsOnlyChangedFieldsAndRebuildsPastStates() throws Exception {
+        OffsetDateTime beforeCreation = tick();
+        Task task = taskService.createTask(new TaskCreateRequest("draft", "a long description", OffsetDateTime.now().plusDays(1)));
+        OffsetDateTime created = tick();
+        patch(task.getId(), "renamed", null);
+        OffsetDateTime renamed = tick();
+        patch(task.getId(), null, Task.StatusEnum.COMPLETED);
+        OffsetDateTime completed = tick();
+        patch(task.getId(), "final", null);
+
+        TaskHistoryPage newest = reader.getHistory(task.getId(), null, 3);
+        assertThat(newest.getItems()).extracting(TaskHistoryEntry::getVersion).containsExactly(3L, 2L, 1L);
+        assertThat(newest.getNextCursor()).isEqualTo(1L);
+        TaskHistoryEntry rename = newest.getItems().get(2);
+        assertThat(rename.getType()).isEqualTo(TaskChangedEvent.Type.UPDATED);
+        // the description did not change, so it is not copied again
+        assertThat(rename.getChanges().fieldNames()).toIterable().containsExactly("title");
+        TaskHistoryEntry creation = reader.getHistory(task.getId(), newest.getNextCursor(), 3).getItems().get(0);
+        assertThat(creation.getType()).isEqualTo(TaskChangedEvent.Type.CREATED);
+        assertThat(creation.getChanges().get("description").asText()).isEqualTo("a long description");
+        // a snapshot every second version
+        assertThat(historyRepository.findAll()).filteredOn(row -> row.getSnapshot() != null)
+                .extracting(TaskHistoryEntity::getVersion).containsExactly(2L);
+
+        assertThatThrownBy(() -> reader.getTaskAsOf(task.getId(), beforeCreation))
+                .isInstanceOf(TaskHistoryNotFoundException.class);
+        assertThat(reader.getTaskAsOf(task.getId(), created).getTitle()).isEqualTo("draft");
+        Task afterRename = reader.getTaskAsOf(task.getId(), renamed);
+        assertThat(afterRename.getTitle()).isEqualTo("renamed");
+        assertThat(afterRename.getStatus()).isEqualTo(Task.StatusEnum.PENDING);
+        assertThat(afterRename.getVersion()).isEqualTo(1L);
+        assertThat(reader.getTaskAsOf(task.getId(), completed).getStatus()).isEqualTo(Task.StatusEnum.COMPLETED);
+        Task latest = reader.getTaskAsOf(task.getId(), OffsetDateTime.now());
+        assertThat(latest.getTitle()).isEqualTo("final");
+        assertThat(latest.getDescription()).isEqualTo("a long description");
+        // the database keeps microseconds
+        assertThat(latest.getDeadline()).isCloseTo(task.getDeadline(), within(1, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void snapshotsCountUpdatesRatherThanVersions() {
+        Task parent = taskService.createTask(new TaskCreateRequest("parent", "description", OffsetDateTime.now().plusDays(1)));
+        patch(parent.getId(), "renamed", null);
+        // a subtask's rollup moves the parent's version without a history row
+        transactionTemplate.executeWithoutResult(status -> taskRepository.adjustRollup(parent.getId(), 1, 0));
+        patch(parent.getId(), null, Task.StatusEnum.IN_PROGRESS);
+
+        // the second update since the creation, though the version did not pass a multiple of 2
+        assertThat(historyRepository.findAll()).filteredOn(row -> row.getSnapshot() != null)
+                .extracting(TaskHistoryEntity::getVersion).containsExactly(3L);
+        assertThat(historyRepository.findAll()).extracting(TaskHistoryEntity::getDeltasSinceSnapshot)
+                .containsExactlyInAnyOrder(0, 1, 0);
+    }
+
+    @Test
+    void compactionFoldsOldChangesAndPurgesDeletedTasks() throws Exception {
+        Task kept = taskService.createTask(new TaskCreateRequest("kept", "description", OffsetDateTime.now().plusDays(1)));
+        patch(kept.getId(), "kept, renamed", null);
+        patch(kept.getId(), null, Task.StatusEnum.IN_PROGRESS);
+        Task deleted = taskService.createTask(new TaskCreateRequest("deleted", "description", OffsetDateTime.now().plusDays(1)));
+        taskService.deleteTask(deleted.getId());
+        OffsetDateTime deletedAt = tick();
+        assertThatThrownBy(() -> reader.getTaskAsOf(deleted.getId(), deletedAt))
+                .isInstanceOf(TaskHistoryNotFoundException.class);
+
+        // everything so far is past retention: three rows of the kept task fold into one, two are purged
+        assertThat(compactor.compact(Instant.now())).isEqualTo(4);
+
+        assertThat(reader.getHistory(deleted.getId(), null, null).getItems()).isEmpty();
+        assertThat(reader.getHistory(kept.getId(), null, null).getItems())
+                .extracting(TaskHistoryEntry::getVersion).containsExactly(2L);
+        Task state = reader.getTaskAsOf(kept.getId(), OffsetDateTime.now());
+        assertThat(state.getTitle()).isEqualTo("kept, renamed");
+        assertThat(state.getStatus()).isEqualTo(Task.StatusEnum.IN_PROGRESS);
+        assertThat(compactor.compact(Instant.now())).isZero();
+
+        // later changes replay on top of the compacted row
+        patch(kept.getId(), "kept again", null);
+        assertThat(reader.getTaskAsOf(kept.getId(), OffsetDateTime.now()).getTitle()).isEqualTo("kept again");
+    }
+
+    @Test
+    void compactionOnlyFoldsHistoryThatStartsWithAFullState() throws Exception {
+        properties.setSnapshotInterval(100);
+        Task task = taskService.createTask(new TaskCreateRequest("legacy", "description", OffsetDateTime.now().plusDays(1)));
+        patch(task.getId(), "renamed", null);
+        patch(task.getId(), null, Task.StatusEnum.IN_PROGRESS);
+        // as if history was enabled after the task was created: it starts with a delta
+        historyRepository.deleteAll(historyRepository.findAll().stream()
+                .filter(row -> row.getChangeType().equals(TaskChangedEvent.Type.CREATED.name())).toList());
+
+        // the first delta is dropped, the second is not made a snapshot with no title or deadline
+        assertThat(compactor.compact(Instant.now())).isEqualTo(1);
+        assertThat(historyRepository.findAll()).singleElement().satisfies(row -> {
+            assertThat(row.getVersion()).isEqualTo(2L);
+            assertThat(row.getSnapshot()).isNull();
+        });
+        assertThatThrownBy(() -> reader.getTaskAsOf(task.getId(), OffsetDateTime.now()))
+                .isInstanceOf(TaskHistoryNotFoundException.class);
+        assertThat(compactor.compact(Instant.now())).isZero();
+
+        // the first change recorded for a task without history carries its full state
+        historyRepository.deleteAll();
+        patch(task.getId(), "seeded", null);
+        Task state = reader.getTaskAsOf(task.getId(), OffsetDateTime.now());
+        assertThat(state.getTitle()).isEqualTo("seeded");
+        assertThat(state.getDescription()).isEqualTo("description");
+        assertThat(state.getStatus()).isEqualTo(Task.StatusEnum.IN_PROGRESS);
+        assertThat(state.getDeadline()).isNotNull();
+    }
+
+    private void patch(Long id, String title, Task.StatusEnum status) {
+        TaskPatch patch = new TaskPatch();
+        if (title != null) {
+            patch.setTitle(JsonNullable.of(title));
+        }
+        if (status != null) {
+            patch.setStatus(JsonNullable.of(status));
+        }
+        taskService.patchTask(id, patch);
+    }
+
+    // keeps consecutive changes on distinct timestamps
+    private static OffsetDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        OffsetDateTime now = OffsetDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
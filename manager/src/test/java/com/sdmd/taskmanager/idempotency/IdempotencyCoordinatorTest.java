@@ -0,0 +1,229 @@
+package com.sdmd.taskmanager.idempotency;
+
+import com.sdmd.taskmanager.config.IdempotencyProperties;
+import com.sdmd.taskmanager.exception.IdempotencyKeyInProgressException;
+import com.sdmd.taskmanager.exception.IdempotencyKeyReusedException;
+import com.sdmd.taskmanager.repository.IdempotencyKeyRepository;
+import com.sdmd.taskmanager.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// the coordinator commits its own transactions, as it does outside tests
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotencyCoordinatorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-06T09:00:00Z");
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyProperties properties;
+    private IdempotencyCoordinator coordinator;
+
+    @BeforeEach
+    void setup() {
+        properties = new IdempotencyProperties();
+        properties.setInFlightTimeout(Duration.ofSeconds(5));
+        coordinator = new IdempotencyCoordinator(new InMemoryIdempotencyStore(properties), properties, transactionTemplate);
+    }
+
+    @AfterEach
+    void cleanup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void replaysTheFirstResponse() {
+        AtomicInteger calls = new AtomicInteger();
+
+        IdempotencyCoordinator.Execution first = coordinator.execute("k", "body", () -> response("body", calls.incrementAndGet()));
+        IdempotencyCoordinator.Execution retry = coordinator.execute("k", "body", () -> response("body", calls.incrementAndGet()));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().id()).isEqualTo(1L);
+        assertThat(calls).hasValue(1);
+        assertThatThrownBy(() -> coordinator.execute("k", "other body", () -> response("other body", 2)))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void concurrentRetriesWaitForTheRequestInFlight() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotencyCoordinator.Execution> original = executor.submit(() -> coordinator.execute("k", "body", () -> {
+                started.countDown();
+                await(release);
+                return response("body", calls.incrementAndGet());
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            List<Future<IdempotencyCoordinator.Execution>> retries = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                retries.add(executor.submit(() -> coordinator.execute("k", "body", () -> response("body", calls.incrementAndGet()))));
+            }
+            release.countDown();
+
+            assertThat(original.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+            for (Future<IdempotencyCoordinator.Execution> retry : retries) {
+                assertThat(retry.get(5, TimeUnit.SECONDS).response().id()).isEqualTo(1L);
+            }
+            assertThat(calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retryRunsTheRequestWhenTheFirstAttemptFailed() {
+        assertThatThrownBy(() -> coordinator.execute("k", "body", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotencyCoordinator.Execution retry = coordinator.execute("k", "body", () -> response("body", 7));
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.response().id()).isEqualTo(7L);
+    }
+
+    @Test
+    void retryGivesUpWhileTheFirstRequestIsStillRunning() throws Exception {
+        properties.setInFlightTimeout(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> coordinator.execute("k", "body", () -> {
+                started.countDown();
+                await(release);
+                return response("body", 1);
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> coordinator.execute("k", "body", () -> response("body", 2)))
+                    .isInstanceOf(IdempotencyKeyInProgressException.class);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void databaseClaimKeepsAnotherInstanceFromRunningTheRequest() throws Exception {
+        IdempotencyCoordinator first = new IdempotencyCoordinator(new DatabaseIdempotencyStore(repository, properties),
+                properties, transactionTemplate);
+        IdempotencyCoordinator second = new IdempotencyCoordinator(new DatabaseIdempotencyStore(repository, properties),
+                properties, transactionTemplate);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyCoordinator.Execution> original = executor.submit(() -> first.execute("k", "body", () -> {
+                started.countDown();
+                await(release);
+                return response("body", 1);
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> second.execute("k", "body", () -> response("body", 2)))
+                    .isInstanceOf(IdempotencyKeyInProgressException.class);
+            release.countDown();
+            assertThat(original.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+
+            IdempotencyCoordinator.Execution retry = second.execute("k", "body", () -> response("body", 2));
+            assertThat(retry.replayed()).isTrue();
+            assertThat(retry.response().id()).isEqualTo(1L);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void databaseClaimIsReleasedWhenTheRequestFails() {
+        IdempotencyCoordinator first = new IdempotencyCoordinator(new DatabaseIdempotencyStore(repository, properties),
+                properties, transactionTemplate);
+        IdempotencyCoordinator second = new IdempotencyCoordinator(new DatabaseIdempotencyStore(repository, properties),
+                properties, transactionTemplate);
+
+        assertThatThrownBy(() -> first.execute("k", "body", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(repository.findAll()).isEmpty();
+
+        IdempotencyCoordinator.Execution retry = second.execute("k", "body", () -> response("body", 7));
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.response().id()).isEqualTo(7L);
+    }
+
+    @Test
+    void abandonedDatabaseClaimIsTakenOver() {
+        DatabaseIdempotencyStore crashed = new DatabaseIdempotencyStore(repository, properties,
+                Clock.fixed(NOW.minus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+        DatabaseIdempotencyStore store = new DatabaseIdempotencyStore(repository, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertThat(crashed.claim(TenantIdentifierResolver.ROOT + "/k", "body")).isTrue();
+
+        IdempotencyCoordinator.Execution retry = new IdempotencyCoordinator(store, properties, transactionTemplate)
+                .execute("k", "body", () -> response("body", 2));
+        assertThat(retry.replayed()).isFalse();
+        // the first request can no longer store its response, so its transaction rolls back
+        assertThatThrownBy(() -> crashed.complete(TenantIdentifierResolver.ROOT + "/k", response("body", 1)))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        assertThat(store.find(TenantIdentifierResolver.ROOT + "/k")).contains(response("body", 2));
+    }
+
+    @Test
+    void databaseStoreIgnoresAndPurgesExpiredKeys() {
+        DatabaseIdempotencyStore earlier = new DatabaseIdempotencyStore(repository, properties,
+                Clock.fixed(NOW.minus(Duration.ofHours(25)), ZoneOffset.UTC));
+        DatabaseIdempotencyStore store = new DatabaseIdempotencyStore(repository, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        earlier.claim("old", "body");
+        transactionTemplate.executeWithoutResult(status -> earlier.complete("old", response("body", 1)));
+        store.claim("new", "body");
+        transactionTemplate.executeWithoutResult(status -> store.complete("new", response("body", 2)));
+
+        assertThat(store.find("new")).contains(response("body", 2));
+        assertThat(store.find("old")).isEmpty();
+        assertThat(store.purge()).isEqualTo(1);
+        assertThat(repository.findAll()).extracting(entity -> entity.getKey()).containsExactly("new");
+    }
+
+    private static IdempotentResponse response(String fingerprint, long id) {
+        return new IdempotentResponse(fingerprint, 201, id, "http://localhost/tasks/" + id, "\"0\"");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sdmd.taskmanager.metrics;
+
+import com.sdmd.taskmanager.config.MetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimingFilterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsProperties properties = new MetricsProperties();
+
+    @Test
+    void splitsDatabaseAndApplicationTimePerRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/7");
+        JdbcTimingSessionListener session = new JdbcTimingSessionListener();
+
+        new RequestTimingFilter(registry, properties).doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks/{id}");
+            session.jdbcExecuteStatementStart();
+            sleep(20);
+            session.jdbcExecuteStatementEnd();
+            session.jdbcExecuteBatchStart();
+            session.jdbcExecuteBatchEnd();
+        });
+
+        assertThat(registry.get("taskmanager.request.db").tag("uri", "/tasks/{id}").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(20);
+        assertThat(registry.get("taskmanager.request.app").tag("method", "GET").timer().count()).isEqualTo(1);
+        assertThat(registry.get("taskmanager.request.statements").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void capturesSqlOnlyForSampledRequests() throws Exception {
+        properties.setSlowRequestSampleRate(1.0);
+        properties.setSlowRequestThreshold(Duration.ZERO);
+        SqlSamplingStatementInspector inspector = new SqlSamplingStatementInspector();
+        RequestDbTime[] seen = new RequestDbTime[1];
+
+        new RequestTimingFilter(registry, properties).doFilter(new MockHttpServletRequest("GET", "/tasks"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    inspector.inspect("select 1");
+                    seen[0] = RequestDbTime.current();
+                });
+        assertThat(seen[0].getStatements()).containsExactly("select 1");
+
+        properties.setSlowRequestSampleRate(0.0);
+        new RequestTimingFilter(registry, properties).doFilter(new MockHttpServletRequest("GET", "/tasks"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    inspector.inspect("select 1");
+                    seen[0] = RequestDbTime.current();
+                });
+        assertThat(seen[0].getStatements()).isEmpty();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
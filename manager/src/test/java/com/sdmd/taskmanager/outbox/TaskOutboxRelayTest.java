@@ -0,0 +1,139 @@
+package com.sdmd.taskmanager.outbox;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.OutboxProperties;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.event.TaskChangedEvent.Type;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskOutboxRepository;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskServiceImpl.class, TaskMapperImpl.class, PaginationProperties.class, BatchProperties.class, CacheConfig.class,
+        OutboxProperties.class, TaskOutboxWriter.class, TaskOutboxRelay.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {
+        "taskmanager.batch.chunk-size=2",
+        "taskmanager.outbox.batch-size=2",
+        // keep the background poll out of the way; the tests drive relay() themselves
+        "taskmanager.outbox.poll-interval=1h"
+})
+public class TaskOutboxRelayTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskOutboxRepository outboxRepository;
+
+    @Autowired
+    private TaskOutboxRelay relay;
+
+    @Autowired
+    private RecordingPublisher publisher;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        RecordingPublisher recordingPublisher() {
+            return new RecordingPublisher();
+        }
+    }
+
+    static class RecordingPublisher implements OutboxPublisher {
+        final List<OutboxMessage> published = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void publish(List<OutboxMessage> messages) {
+            if (failing) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            published.addAll(messages);
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        outboxRepository.deleteAll();
+        publisher.published.clear();
+        publisher.failing = false;
+    }
+
+    @Test
+    void relaysEveryChangeInBatchesAndEmptiesTheOutbox() {
+        Task created = taskService.createTask(request("one"));
+        created.setTitle("renamed");
+        taskService.updateTask(created.getId(), created);
+        taskService.deleteTask(created.getId());
+
+        assertThat(relay.relay()).isEqualTo(3);
+
+        assertThat(publisher.published).extracting(OutboxMessage::getType)
+                .containsExactly(Type.CREATED, Type.UPDATED, Type.DELETED);
+        assertThat(publisher.published).allMatch(message -> message.getTaskId().equals(created.getId()));
+        assertThat(publisher.published.get(1).getPayload()).contains("\"title\":\"renamed\"");
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void keepsMessagesWhenPublishingFails() {
+        taskService.createTask(request("one"));
+        publisher.failing = true;
+
+        assertThat(relay.relay()).isZero();
+        assertThat(outboxRepository.count()).isEqualTo(1);
+
+        publisher.failing = false;
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void recordsOnlyRowsThatWereWritten() {
+        List<TaskCreateRequest> requests = new ArrayList<>();
+        requests.add(request("one"));
+        // violates the NOT NULL deadline column, so its chunk is retried row by row
+        requests.add(new TaskCreateRequest("two", "no deadline", null));
+        requests.add(request("three"));
+
+        taskService.createTasks(requests);
+
+        assertThat(outboxRepository.count()).isEqualTo(2);
+        assertThat(taskRepository.count()).isEqualTo(2);
+    }
+
+    private static TaskCreateRequest request(String title) {
+        return new TaskCreateRequest(title, "description", OffsetDateTime.now().plusDays(1));
+    }
+}
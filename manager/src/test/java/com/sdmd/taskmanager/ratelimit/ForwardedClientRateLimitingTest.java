@@ -0,0 +1,52 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs on a real Tomcat, whose RemoteIpValve takes the client address from X-Forwarded-For
+ * when the request comes from a trusted proxy; the test client connects over loopback, which
+ * the default internal-proxies trust.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:forwarded;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "taskmanager.tenancy.default-tenant=default",
+        "taskmanager.rate-limit.endpoints[0].path=/tasks/{id}",
+        "taskmanager.rate-limit.endpoints[0].methods=GET",
+        "taskmanager.rate-limit.endpoints[0].requests=1",
+        "taskmanager.rate-limit.endpoints[0].period=1h",
+        "taskmanager.rate-limit.endpoints[0].burst=2"})
+public class ForwardedClientRateLimitingTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void clientsBehindATrustedProxyGetABucketEach() {
+        assertThat(get("203.0.113.1")).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(get("203.0.113.1")).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(get("203.0.113.1")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        // same proxy, another client
+        assertThat(get("203.0.113.2")).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private HttpStatusCode get(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", forwardedFor);
+        return rest.exchange("/tasks/999", HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode();
+    }
+}
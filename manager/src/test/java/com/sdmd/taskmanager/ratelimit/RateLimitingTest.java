@@ -0,0 +1,137 @@
+package com.sdmd.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimit;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "taskmanager.tenancy.default-tenant=default",
+        "taskmanager.rate-limit.endpoints[0].path=/tasks/{id}",
+        "taskmanager.rate-limit.endpoints[0].methods=GET",
+        "taskmanager.rate-limit.endpoints[0].requests=1",
+        "taskmanager.rate-limit.endpoints[0].period=1h",
+        "taskmanager.rate-limit.endpoints[0].burst=2",
+        "taskmanager.load-shedding.latency-threshold=1ms",
+        "taskmanager.load-shedding.min-requests=1",
+        "taskmanager.load-shedding.max-shed-fraction=1",
+        // sampled by the tests themselves
+        "taskmanager.load-shedding.sample-interval=1h"})
+@AutoConfigureMockMvc
+public class RateLimitingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoadShedder shedder;
+
+    @AfterEach
+    void recover() {
+        while (shedder.getShedFraction() > 0) {
+            shedder.sample();
+        }
+    }
+
+    @Test
+    void tokenBucketRefillsAtTheConfiguredRate() {
+        long interval = Duration.ofMillis(100).toNanos();
+        TokenBucket bucket = new TokenBucket(interval, 3, 0);
+
+        assertThat(bucket.tryAcquire(0)).isEqualTo(2);
+        assertThat(bucket.tryAcquire(0)).isEqualTo(1);
+        assertThat(bucket.tryAcquire(0)).isEqualTo(0);
+        assertThat(bucket.tryAcquire(0)).isEqualTo(-interval);
+        // one token back after one interval, the full burst after three
+        assertThat(bucket.tryAcquire(interval)).isEqualTo(0);
+        assertThat(bucket.tryAcquire(10 * interval)).isEqualTo(2);
+    }
+
+    @Test
+    void clientIsRefusedOnceItsBurstIsSpent() throws Exception {
+        mockMvc.perform(get("/tasks/999").with(from("10.0.0.1")))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(RateLimitFilter.LIMIT_HEADER, "2"))
+                .andExpect(header().string(RateLimitFilter.REMAINING_HEADER, "1"));
+        mockMvc.perform(get("/tasks/999").with(from("10.0.0.1")))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(RateLimitFilter.REMAINING_HEADER, "0"));
+        mockMvc.perform(get("/tasks/999").with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3600"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // other clients and other endpoints have buckets of their own
+        mockMvc.perform(get("/tasks/999").with(from("10.0.0.2")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks").with(from("10.0.0.1")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RateLimitFilter.LIMIT_HEADER, "200"));
+    }
+
+    @Test
+    void rotatingTheApiKeyDoesNotBuyAFreshBucket() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/tasks/999").header("X-API-Key", "key-" + i).with(from("10.0.0.3")))
+                    .andExpect(status().isNotFound());
+        }
+        mockMvc.perform(get("/tasks/999").header("X-API-Key", "key-2").with(from("10.0.0.3")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void authenticatedUsersAreLimitedWhereverTheyConnectFrom() throws Exception {
+        mockMvc.perform(get("/tasks/999").with(alice()).with(from("10.0.0.4")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks/999").with(alice()).with(from("10.0.0.5")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks/999").with(alice()).with(from("10.0.0.6")))
+                .andExpect(status().isTooManyRequests());
+        // while the addresses she used keep their anonymous budget
+        mockMvc.perform(get("/tasks/999").with(from("10.0.0.4")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void overloadShedsRequestsButNotHealthChecks() throws Exception {
+        shedder.record(Duration.ofMinutes(10).toNanos());
+        shedder.sample();
+        assertThat(shedder.getShedFraction()).isGreaterThan(0.99);
+
+        mockMvc.perform(get("/tasks").with(from("10.0.0.7")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "3600"))
+                .andExpect(jsonPath("$.status").value(503));
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor alice() {
+        return user("alice").authorities(new SimpleGrantedAuthority("TENANT_default"));
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package com.sdmd.taskmanager.replica;
+
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two in-memory H2 databases stand in for the primary and its replica; replication is not simulated,
+// so whichever rows a read returns show which database served it
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "taskmanager.replicas.enabled=true",
+        "taskmanager.replicas.instances[0].url=jdbc:h2:mem:routing-replica;MODE=MySQL",
+        "taskmanager.replicas.lag-query=SELECT seconds FROM replica_lag",
+        "taskmanager.replicas.max-lag=2s",
+        "taskmanager.tenancy.default-tenant=default",
+        // checked by the tests themselves
+        "taskmanager.replicas.check-interval=1h"})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockitoSpyBean
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ReplicaSet replicas;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setup() {
+        replica = new JdbcTemplate(replicas.getReplicas().get(0).getPool());
+        replica.execute("CREATE TABLE IF NOT EXISTS tasks (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, "
+                + "description VARCHAR(255) NOT NULL, status VARCHAR(255) NOT NULL, "
+                + "deadline TIMESTAMP(6) WITH TIME ZONE NOT NULL, version BIGINT NOT NULL, parent_id BIGINT, "
+                + "subtask_count INT DEFAULT 0 NOT NULL, completed_subtask_count INT DEFAULT 0 NOT NULL, "
+                + "tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL, overdue BOOLEAN DEFAULT FALSE NOT NULL)");
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds INT)");
+        replica.update("DELETE FROM tasks");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO tasks (id, title, description, status, deadline, version) "
+                + "VALUES (1000000, 'on replica', 'd', 'Pending', ?, 0)", OffsetDateTime.now());
+
+        taskRepository.deleteAll();
+        // the tenant of requests without a principal or an X-Tenant-ID header
+        TenantContext.callAs("default", () -> taskService.createTask(new TaskCreateRequest("on primary", "d", OffsetDateTime.now())));
+        monitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(titles()).containsExactly("on replica");
+
+        // writes still go to the primary, and so do lookups by id
+        Task created = taskService.createTask(new TaskCreateRequest("second on primary", "d", OffsetDateTime.now()));
+        assertThat(taskService.getTaskById(created.getId()).getTitle()).isEqualTo("second on primary");
+        assertThat(replica.queryForObject("SELECT count(*) FROM tasks", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        replica.update("UPDATE replica_lag SET seconds = 10");
+        monitor.check();
+        assertThat(replicas.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(titles()).containsExactly("on primary");
+
+        replica.update("UPDATE replica_lag SET seconds = 1");
+        monitor.check();
+        assertThat(titles()).containsExactly("on replica");
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimary() throws Exception {
+        Cookie cookie = mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"mine\",\"description\":\"d\",\"deadline\":\"2030-01-01T00:00:00Z\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+
+        mockMvc.perform(get("/tasks").cookie(cookie))
+                .andExpect(jsonPath("$[1].title").value("mine"));
+        mockMvc.perform(get("/tasks"))
+                .andExpect(jsonPath("$[0].title").value("on replica"));
+
+        // past the window the cookie no longer pins, even if the client keeps sending it
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+        mockMvc.perform(get("/tasks").cookie(expired))
+                .andExpect(jsonPath("$[0].title").value("on replica"));
+    }
+
+    @Test
+    void streamedTasksStayWithinTheRequestsTenantAndPin() throws Exception {
+        TenantContext.callAs("globex", () -> taskService.createTask(new TaskCreateRequest("globex's task", "d", OffsetDateTime.now())));
+        // H2 refuses the fetch size that makes MySQL stream; the same query without it
+        doAnswer(invocation -> taskRepository.findAll(Sort.by("id")).stream()).when(taskRepository).streamAllByOrderByIdAsc();
+        Cookie pinned = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() + 60_000));
+
+        // the body is written on another thread, which must still read for globex and from the primary
+        MvcResult globex = mockMvc.perform(get("/tasks/stream").with(user("bob").authorities(new SimpleGrantedAuthority("TENANT_globex"))).cookie(pinned))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(globex))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title").value(contains("globex's task")));
+
+        // the default tenant's unpinned stream comes from the replica
+        MvcResult other = mockMvc.perform(get("/tasks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(other))
+                .andExpect(jsonPath("$[*].title").value(contains("on replica")));
+    }
+
+    private List<String> titles() {
+        return taskService.getTasks(TaskQuery.all(), null, null).getItems().stream().map(Task::getTitle).toList();
+    }
+}
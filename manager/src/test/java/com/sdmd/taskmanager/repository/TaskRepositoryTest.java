@@ -0,0 +1,98 @@
+package com.sdmd.taskmanager.repository;
+
+import com.sdmd.taskmanager.dto.TaskCursor;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.dto.TaskSort;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.model.Task.StatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class TaskRepositoryTest {
+
+    private static final OffsetDateTime MONDAY = OffsetDateTime.of(2025, 1, 6, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private TaskEntity first;
+    private TaskEntity second;
+    private TaskEntity third;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        first = save("first", StatusEnum.IN_PROGRESS, MONDAY.plusDays(2));
+        second = save("second", StatusEnum.IN_PROGRESS, MONDAY);
+        third = save("third", StatusEnum.PENDING, MONDAY);
+    }
+
+    @Test
+    void filtersByStatusAndDeadlineRange() {
+        TaskQuery query = TaskQuery.builder()
+                .statuses(Set.of(StatusEnum.IN_PROGRESS))
+                .deadlineFrom(MONDAY)
+                .deadlineTo(MONDAY.plusDays(1))
+                .build();
+
+        assertThat(find(query, null, 10)).extracting(TaskEntity::getTitle).containsExactly("second");
+    }
+
+    @Test
+    void pagesByDeadlineWithIdTieBreak() {
+        TaskQuery query = TaskQuery.builder().sort(TaskSort.DEADLINE_ASC).build();
+
+        List<TaskEntity> page = find(query, null, 2);
+        assertThat(page).extracting(TaskEntity::getTitle).containsExactly("second", "third");
+
+        TaskCursor cursor = TaskCursor.of(second.getId(), second.getDeadline(), TaskSort.DEADLINE_ASC);
+        assertThat(find(query, cursor, 2)).extracting(TaskEntity::getTitle).containsExactly("third", "first");
+    }
+
+    @Test
+    void pagesByIdDescending() {
+        TaskQuery query = TaskQuery.builder().sort(TaskSort.ID_DESC).build();
+
+        assertThat(find(query, new TaskCursor(third.getId()), 10))
+                .extracting(TaskEntity::getTitle)
+                .containsExactly("second", "first");
+    }
+
+    @Test
+    void projectsSummariesWithTheSameFiltersAndOrder() {
+        TaskQuery query = TaskQuery.builder().sort(TaskSort.DEADLINE_DESC).build();
+
+        List<TaskSummaryView> page = taskRepository.findBy(TaskSpecifications.matching(query, null),
+                q -> q.as(TaskSummaryView.class).sortBy(query.getSort().getSort()).limit(2).all());
+
+        assertThat(page).extracting(TaskSummaryView::getTitle).containsExactly("first", "third");
+        assertThat(page.get(0).getId()).isEqualTo(first.getId());
+        assertThat(page.get(0).getStatus()).isEqualTo(StatusEnum.IN_PROGRESS.getValue());
+        assertThat(page.get(0).getVersion()).isEqualTo(first.getVersion());
+        assertThat(page.get(0)).isNotInstanceOf(TaskEntity.class);
+    }
+
+    private List<TaskEntity> find(TaskQuery query, TaskCursor after, int limit) {
+        return taskRepository.findBy(TaskSpecifications.matching(query, after),
+                q -> q.sortBy(query.getSort().getSort()).limit(limit).all());
+    }
+
+    private TaskEntity save(String title, StatusEnum status, OffsetDateTime deadline) {
+        TaskEntity entity = new TaskEntity();
+        entity.setTitle(title);
+        entity.setDescription(title + " description");
+        entity.setStatus(status.getValue());
+        entity.setDeadline(deadline);
+        return taskRepository.save(entity);
+    }
+}
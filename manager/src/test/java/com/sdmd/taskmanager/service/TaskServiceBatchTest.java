@@ -0,0 +1,182 @@
+package com.sdmd.taskmanager.service;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult.Outcome;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.exception.TaskBatchIncompleteException;
+import com.sdmd.taskmanager.exception.TaskVersionConflictException;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskServiceImpl.class, TaskMapperImpl.class, PaginationProperties.class, BatchProperties.class, CacheConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class})
+@TestPropertySource(properties = "taskmanager.batch.chunk-size=2")
+public class TaskServiceBatchTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void createTasks_ReportsEachItem() {
+        List<TaskCreateRequest> requests = new ArrayList<>();
+        requests.add(request("one"));
+        requests.add(new TaskCreateRequest(null, "missing title", OffsetDateTime.now()));
+        requests.add(request("three"));
+        // passes bean validation but violates the NOT NULL deadline column, which fails its whole chunk
+        requests.add(new TaskCreateRequest("four", "no deadline", null));
+        requests.add(request("five"));
+
+        TaskBatchResult result = taskService.createTasks(requests);
+
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(TaskBatchItemResult::getOutcome)
+                .containsExactly(Outcome.CREATED, Outcome.FAILED, Outcome.CREATED, Outcome.FAILED, Outcome.CREATED);
+        assertThat(result.getItems().get(1).getError()).isEqualTo("title: must not be null");
+        assertThat(taskRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void updateAndDeleteTasks_ReportMissingIds() {
+        TaskBatchResult created = taskService.createTasks(List.of(request("one"), request("two")));
+        Long first = created.getItems().get(0).getId();
+        Long second = created.getItems().get(1).getId();
+
+        Task renamed = new Task().id(first).title("renamed").description("d")
+                .status(Task.StatusEnum.COMPLETED).deadline(OffsetDateTime.now());
+        Task missing = new Task().id(-1L).title("missing").description("d").deadline(OffsetDateTime.now());
+
+        TaskBatchResult updated = taskService.updateTasks(List.of(renamed, missing));
+        assertThat(updated.getItems()).extracting(TaskBatchItemResult::getOutcome)
+                .containsExactly(Outcome.UPDATED, Outcome.FAILED);
+        assertThat(taskRepository.findById(first).orElseThrow().getTitle()).isEqualTo("renamed");
+
+        TaskBatchResult deleted = taskService.deleteTasks(List.of(first, -1L, second));
+        assertThat(deleted.getItems()).extracting(TaskBatchItemResult::getOutcome)
+                .containsExactly(Outcome.DELETED, Outcome.FAILED, Outcome.DELETED);
+        assertThat(taskRepository.count()).isZero();
+    }
+
+    @Test
+    void updateTasks_RetriesTheRestOfAFailedChunkAtTheVersionItWasRead() {
+        TaskBatchResult created = taskService.createTasks(List.of(request("one"), request("two")));
+        Long first = created.getItems().get(0).getId();
+        Long second = created.getItems().get(1).getId();
+        Task renamed = new Task().id(first).title("renamed").description("d")
+                .status(Task.StatusEnum.PENDING).deadline(OffsetDateTime.now());
+        // longer than the column: the chunk's flush fails and is retried row by row
+        Task tooLong = new Task().id(second).title("x".repeat(300)).description("d")
+                .status(Task.StatusEnum.PENDING).deadline(OffsetDateTime.now());
+
+        // with open-in-view the entities outlive the rolled back flush that bumped their version
+        TaskBatchResult updated = openInView(() -> taskService.updateTasks(List.of(renamed, tooLong)));
+
+        assertThat(updated.getItems()).extracting(TaskBatchItemResult::getOutcome)
+                .containsExactly(Outcome.UPDATED, Outcome.FAILED);
+        TaskEntity row = taskRepository.findById(first).orElseThrow();
+        assertThat(row.getTitle()).isEqualTo("renamed");
+        assertThat(row.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void updates_RejectStaleVersion() {
+        Task created = taskService.createTask(request("one"));
+        assertThat(created.getVersion()).isZero();
+
+        Task update = new Task().title("v1").description("d").deadline(OffsetDateTime.now()).version(0L);
+        assertThat(taskService.updateTask(created.getId(), update).getVersion()).isEqualTo(1L);
+
+        // a second writer still holding version 0 must not overwrite v1
+        Task stale = new Task().title("lost").description("d").deadline(OffsetDateTime.now()).version(0L);
+        assertThatThrownBy(() -> taskService.updateTask(created.getId(), stale))
+                .isInstanceOf(TaskVersionConflictException.class);
+        assertThat(taskService.updateTasks(List.of(stale.id(created.getId()))).getFailed()).isEqualTo(1);
+        assertThat(taskRepository.findById(created.getId()).orElseThrow().getTitle()).isEqualTo("v1");
+    }
+
+    @Test
+    void createTasks_ReportsWhatCommittedBeforeAnUnexpectedFailure() {
+        List<TaskCreateRequest> requests = List.of(request("one"), request("two"), request("boom"), request("four"));
+
+        // the first chunk of two committed; the caller must not send it again
+        assertThatThrownBy(() -> taskService.createTasks(requests))
+                .isInstanceOfSatisfying(TaskBatchIncompleteException.class, ex -> {
+                    assertThat(ex.getCause()).hasMessage("connection lost");
+                    assertThat(ex.getSettled().getItems()).extracting(TaskBatchItemResult::getIndex).containsExactly(0, 1);
+                    assertThat(ex.getSettled().getSucceeded()).isEqualTo(2);
+                });
+        assertThat(taskRepository.count()).isEqualTo(2);
+    }
+
+    // a failure the per-row fallback does not absorb, like a connection lost mid-batch
+    @TestConfiguration
+    static class FailingListener {
+        @EventListener
+        public void onTaskChanged(TaskChangedEvent event) {
+            if (event.getTask() != null && "boom".equals(event.getTask().getTitle())) {
+                throw new IllegalStateException("connection lost");
+            }
+        }
+    }
+
+    private <T> T openInView(Supplier<T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return work.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    private static TaskCreateRequest request(String title) {
+        return new TaskCreateRequest(title, title + " description", OffsetDateTime.now().plusDays(1));
+    }
+}
@@ -0,0 +1,149 @@
+package com.sdmd.taskmanager.service;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import com.sdmd.taskmanager.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = {TaskServiceImpl.class, TaskMapperImpl.class, PaginationProperties.class, BatchProperties.class, CacheConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class})
+@TestPropertySource(properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=tasks",
+        "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=1m"
+})
+public class TaskServiceCachingTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private TaskRepository taskRepository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+
+    private TaskEntity entity;
+
+    @BeforeEach
+    void setup() {
+        reset(taskRepository);
+        cacheManager.getCache(CacheConfig.TASKS_CACHE).clear();
+
+        entity = new TaskEntity();
+        entity.setId(1L);
+        entity.setTitle("Cached");
+        entity.setDescription("Cached description");
+        entity.setDeadline(OffsetDateTime.now().plusDays(1));
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(entity));
+        when(taskRepository.save(any(TaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskRepository.saveAndFlush(any(TaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void repeatedReadsHitTheCache() {
+        taskService.getTaskById(1L);
+        taskService.getTaskById(1L);
+
+        verify(taskRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void updateRefreshesTheCachedTask() {
+        taskService.getTaskById(1L);
+
+        Task update = taskService.getTaskById(1L);
+        Task changed = new Task().title("Renamed").description(update.getDescription())
+                .status(Task.StatusEnum.COMPLETED).deadline(update.getDeadline());
+        taskService.updateTask(1L, changed);
+
+        assertThat(taskService.getTaskById(1L).getTitle()).isEqualTo("Renamed");
+        // one read to fill the cache, one inside updateTask
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void deleteEvictsTheCachedTask() {
+        taskService.getTaskById(1L);
+        taskService.deleteTask(1L);
+
+        assertThat(cacheManager.getCache(CacheConfig.TASKS_CACHE).get(TenantContext.cacheKey(1L))).isNull();
+    }
+
+    @Test
+    void readThatLoadedBeforeADeleteDoesNotCacheTheDeletedTask() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(taskRepository.findById(1L)).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                // the reader has the row in hand, but has not cached it yet
+                loaded.countDown();
+                release.await();
+            }
+            return Optional.of(entity);
+        });
+        doAnswer(invocation -> {
+            deleted.countDown();
+            return null;
+        }).when(taskRepository).delete(entity);
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<Task> reader = threads.submit(() -> taskService.getTaskById(1L));
+            assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> writer = threads.submit(() -> taskService.deleteTask(1L));
+            assertThat(deleted.await(5, TimeUnit.SECONDS)).isTrue();
+            // give the writer's eviction time to run while the read is still in flight
+            Thread.sleep(100);
+            release.countDown();
+            reader.get(5, TimeUnit.SECONDS);
+            writer.get(5, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertThat(cacheManager.getCache(CacheConfig.TASKS_CACHE).get(TenantContext.cacheKey(1L))).isNull();
+    }
+}
@@ -0,0 +1,87 @@
+package com.sdmd.taskmanager.service;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.exception.InvalidTaskPatchException;
+import com.sdmd.taskmanager.exception.TaskVersionConflictException;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskServiceImpl.class, TaskMapperImpl.class, PaginationProperties.class, BatchProperties.class, CacheConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class})
+public class TaskServicePatchTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Task task;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        task = taskService.createTask(new TaskCreateRequest("title", "description", OffsetDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    void patchTask_ChangesOnlySentFields() {
+        TaskPatch patch = new TaskPatch();
+        patch.setStatus(JsonNullable.of(Task.StatusEnum.COMPLETED));
+
+        Task patched = taskService.patchTask(task.getId(), patch);
+
+        assertThat(patched.getVersion()).isEqualTo(task.getVersion() + 1);
+        TaskEntity stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(Task.StatusEnum.COMPLETED.getValue());
+        assertThat(stored.getTitle()).isEqualTo("title");
+        assertThat(stored.getDescription()).isEqualTo("description");
+    }
+
+    @Test
+    void patchTask_EmptyPatchKeepsVersion() {
+        Task patched = taskService.patchTask(task.getId(), new TaskPatch());
+
+        assertThat(patched.getVersion()).isEqualTo(task.getVersion());
+    }
+
+    @Test
+    void patchTask_RejectsNullAndStaleVersion() {
+        TaskPatch nullTitle = new TaskPatch();
+        nullTitle.setTitle(JsonNullable.of(null));
+        assertThatThrownBy(() -> taskService.patchTask(task.getId(), nullTitle))
+                .isInstanceOf(InvalidTaskPatchException.class);
+
+        TaskPatch stale = new TaskPatch();
+        stale.setTitle(JsonNullable.of("renamed"));
+        stale.setVersion(task.getVersion() + 1);
+        assertThatThrownBy(() -> taskService.patchTask(task.getId(), stale))
+                .isInstanceOf(TaskVersionConflictException.class);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getTitle()).isEqualTo("title");
+    }
+}
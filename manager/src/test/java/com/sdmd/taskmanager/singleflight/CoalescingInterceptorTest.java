@@ -0,0 +1,209 @@
+package com.sdmd.taskmanager.singleflight;
+
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.sdmd.taskmanager.replica.ReadYourWritesFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoalescingInterceptorTest {
+
+    interface Reader {
+        List<String> read(String key);
+    }
+
+    static class SlowReader implements Reader {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        // what a write changes; read as the call starts, like a query taking its snapshot
+        volatile String row = "v1";
+
+        @Override
+        @Coalesced
+        public List<String> read(String key) {
+            String seen = row;
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new ArrayList<>(List.of(key, seen));
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private CoalescingInterceptor interceptor;
+    private SlowReader target;
+    private Reader reader;
+
+    @BeforeEach
+    void setup() {
+        interceptor = new CoalescingInterceptor();
+        interceptor.bindTo(registry);
+        target = new SlowReader();
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvisor(new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class), interceptor));
+        reader = (Reader) factory.getProxy();
+    }
+
+    @AfterEach
+    void shutdown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneCallAndResult() throws Exception {
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> reader.read("a")));
+        }
+        Future<List<String>> other = executor.submit(() -> reader.read("b"));
+        waitUntil(() -> coalesced() == 3 && target.calls.get() == 2);
+        target.release.countDown();
+
+        List<String> first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<List<String>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(other.get(5, TimeUnit.SECONDS)).containsExactly("b", "v1");
+        assertThat(target.calls).hasValue(2);
+        assertThat(registry.get("taskmanager.singleflight.calls").tag("outcome", "executed").counter().count()).isEqualTo(2);
+        assertThat(registry.get("taskmanager.singleflight.in-flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void readAfterACommittedWriteDoesNotJoinAnEarlierFlight() throws Exception {
+        Future<List<String>> before = executor.submit(() -> reader.read("a"));
+        waitUntil(() -> target.calls.get() == 1);
+
+        interceptor.onTaskChanged(TaskChangedEvent.created(new Task().id(1L)));
+        Future<List<String>> after = executor.submit(() -> reader.read("a"));
+        waitUntil(() -> target.calls.get() == 2);
+        target.release.countDown();
+
+        assertThat(after.get(5, TimeUnit.SECONDS)).isNotSameAs(before.get(5, TimeUnit.SECONDS));
+        assertThat(coalesced()).isZero();
+    }
+
+    @Test
+    void writeThatLandsDuringACoalescedLoadIsSeenByEveryoneItNotifies() throws Exception {
+        Future<List<String>> leader = executor.submit(() -> reader.read("a"));
+        waitUntil(() -> target.calls.get() == 1);
+        Future<List<String>> waiter = executor.submit(() -> reader.read("a"));
+        waitUntil(() -> coalesced() == 1);
+
+        // registered ahead of the interceptor: only its order makes the generation move first
+        List<Future<List<String>>> notified = new ArrayList<>();
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(TransactionalEventListenerFactory.class);
+            context.registerBean(Notified.class, () -> new Notified(() -> {
+                notified.add(executor.submit(() -> reader.read("a")));
+                // until the read has either joined the running flight or started its own
+                waitUntil(() -> coalesced() == 2 || target.calls.get() == 2);
+                return null;
+            }));
+            context.registerBean(CoalescingInterceptor.class, () -> interceptor);
+            context.refresh();
+
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                target.row = "v2";
+                context.publishEvent(TaskChangedEvent.updated(new Task().id(1L), new Task().id(1L)));
+                TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                        TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+        target.release.countDown();
+
+        // callers that came before the write share the old read, the one told of it reads again
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("a", "v1");
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isSameAs(leader.get());
+        assertThat(notified).singleElement().satisfies(read ->
+                assertThat(read.get(5, TimeUnit.SECONDS)).containsExactly("a", "v2"));
+        assertThat(coalesced()).isEqualTo(1);
+    }
+
+    @Test
+    void callersPinnedToThePrimaryDoNotJoinReplicaReads() throws Exception {
+        Future<List<String>> replica = executor.submit(() -> reader.read("a"));
+        waitUntil(() -> target.calls.get() == 1);
+
+        // a client that wrote recently comes back with the read-your-writes cookie
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie("TM_PRIMARY_UNTIL", Long.toString(System.currentTimeMillis() + 60_000)));
+        Future<?> pinned = executor.submit(() -> {
+            new ReadYourWritesFilter(Duration.ofMinutes(1)).doFilter(request, new MockHttpServletResponse(),
+                    (req, res) -> reader.read("a"));
+            return null;
+        });
+        waitUntil(() -> target.calls.get() == 2);
+        target.release.countDown();
+
+        replica.get(5, TimeUnit.SECONDS);
+        pinned.get(5, TimeUnit.SECONDS);
+        assertThat(coalesced()).isZero();
+    }
+
+    static class Notified {
+        private final Callable<?> onWrite;
+
+        Notified(Callable<?> onWrite) {
+            this.onWrite = onWrite;
+        }
+
+        // like the event stream: tells a client, who reads right away
+        @TransactionalEventListener
+        public void onTaskChanged(TaskChangedEvent event) throws Exception {
+            onWrite.call();
+        }
+    }
+
+    private double coalesced() {
+        Counter counter = registry.find("taskmanager.singleflight.calls").tag("outcome", "coalesced").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.sdmd.taskmanager.stats;
+
+import com.sdmd.taskmanager.config.StatsProperties;
+import com.sdmd.taskmanager.dto.TaskStats;
+import com.sdmd.taskmanager.entity.TaskEntity;
+import com.sdmd.taskmanager.event.TaskChangedEvent;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class TaskStatisticsTest {
+
+    // a Wednesday
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2025-01-08T12:00:00Z");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final MutableClock clock = new MutableClock(NOW.toInstant());
+    private TaskStatistics statistics;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        statistics = new TaskStatistics(taskRepository, new StatsProperties(), clock);
+    }
+
+    @Test
+    void reconcileCountsFromTheDatabase() {
+        save(Task.StatusEnum.PENDING, NOW.minusDays(1));
+        save(Task.StatusEnum.COMPLETED, NOW.minusDays(1));
+        save(Task.StatusEnum.IN_PROGRESS, NOW.plusHours(6));
+        save(Task.StatusEnum.PENDING, NOW.plusDays(2));
+        save(Task.StatusEnum.PENDING, NOW.plusDays(5));
+
+        statistics.reconcile();
+        TaskStats stats = statistics.snapshot();
+
+        assertThat(stats.getTotal()).isEqualTo(5);
+        assertThat(stats.getByStatus()).containsEntry("Pending", 3L).containsEntry("In_Progress", 1L).containsEntry("Completed", 1L);
+        assertThat(stats.getOverdue()).isEqualTo(1);
+        assertThat(stats.getDueToday()).isEqualTo(1);
+        // today and Friday; next Monday is outside the week
+        assertThat(stats.getDueThisWeek()).isEqualTo(2);
+        assertThat(stats.getReconciledAt()).isEqualTo(NOW.toInstant());
+    }
+
+    @Test
+    void eventsAdjustTheCountersAndPastDaysBecomeOverdue() {
+        statistics.reconcile();
+        Task friday = task(1L, Task.StatusEnum.PENDING, NOW.plusDays(2));
+        Task today = task(2L, Task.StatusEnum.PENDING, NOW.plusHours(1));
+
+        statistics.onTaskChanged(TaskChangedEvent.created(friday));
+        statistics.onTaskChanged(TaskChangedEvent.created(today));
+        statistics.onTaskChanged(TaskChangedEvent.updated(today, task(2L, Task.StatusEnum.IN_PROGRESS, NOW.plusHours(1))));
+
+        TaskStats stats = statistics.snapshot();
+        assertThat(stats.getByStatus()).containsEntry("Pending", 1L).containsEntry("In_Progress", 1L);
+        assertThat(stats.getDueToday()).isEqualTo(1);
+        assertThat(stats.getDueThisWeek()).isEqualTo(2);
+
+        // Saturday: both deadlines have passed without any event
+        clock.instant = NOW.plusDays(3).toInstant();
+        stats = statistics.snapshot();
+        assertThat(stats.getOverdue()).isEqualTo(2);
+        assertThat(stats.getDueThisWeek()).isZero();
+
+        statistics.onTaskChanged(TaskChangedEvent.updated(friday, task(1L, Task.StatusEnum.COMPLETED, NOW.plusDays(2))));
+        statistics.onTaskChanged(TaskChangedEvent.deleted(task(2L, Task.StatusEnum.IN_PROGRESS, NOW.plusHours(1))));
+        stats = statistics.snapshot();
+        assertThat(stats.getOverdue()).isZero();
+        assertThat(stats.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void tasksAreOverdueFromTheirDeadlineNotFromTheNextDay() {
+        save(Task.StatusEnum.PENDING, NOW.minusHours(1));
+        save(Task.StatusEnum.PENDING, NOW.plusMinutes(30));
+        save(Task.StatusEnum.PENDING, NOW.plusDays(1).plusHours(1));
+
+        statistics.reconcile();
+        TaskStats stats = statistics.snapshot();
+        assertThat(stats.getOverdue()).isEqualTo(1);
+        assertThat(stats.getDueToday()).isEqualTo(1);
+
+        Task soon = task(10L, Task.StatusEnum.PENDING, NOW.plusMinutes(10));
+        statistics.onTaskChanged(TaskChangedEvent.created(soon));
+        assertThat(statistics.snapshot().getDueToday()).isEqualTo(2);
+
+        // at its deadline a task is still due; a moment later it is overdue
+        clock.instant = NOW.plusMinutes(10).toInstant();
+        assertThat(statistics.snapshot().getOverdue()).isEqualTo(1);
+        clock.instant = NOW.plusMinutes(10).plusNanos(1000).toInstant();
+        stats = statistics.snapshot();
+        assertThat(stats.getOverdue()).isEqualTo(2);
+        assertThat(stats.getDueToday()).isEqualTo(1);
+
+        // the next day: its tasks were only counted, so they stay due until the rebuild reads their deadlines
+        clock.instant = NOW.plusDays(1).minusHours(10).toInstant();
+        stats = statistics.snapshot();
+        assertThat(stats.getOverdue()).isEqualTo(3);
+        assertThat(stats.getDueToday()).isEqualTo(1);
+
+        clock.instant = NOW.plusDays(1).plusHours(2).toInstant();
+        statistics.reconcile();
+        stats = statistics.snapshot();
+        // the three saved tasks; the one only announced by an event is gone
+        assertThat(stats.getOverdue()).isEqualTo(3);
+        assertThat(stats.getDueToday()).isZero();
+    }
+
+    private void save(Task.StatusEnum status, OffsetDateTime deadline) {
+        TaskEntity entity = new TaskEntity();
+        entity.setTitle("t");
+        entity.setDescription("d");
+        entity.setStatus(status.getValue());
+        entity.setDeadline(deadline);
+        taskRepository.save(entity);
+    }
+
+    private static Task task(Long id, Task.StatusEnum status, OffsetDateTime deadline) {
+        return new Task().id(id).title("t").description("d").status(status).deadline(deadline);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
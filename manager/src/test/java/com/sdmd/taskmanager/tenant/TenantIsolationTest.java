@@ -0,0 +1,229 @@
+package com.sdmd.taskmanager.tenant;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.HistoryProperties;
+import com.sdmd.taskmanager.config.JacksonConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.config.TenancyProperties;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.dto.TaskQuery;
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.exception.TaskHistoryNotFoundException;
+import com.sdmd.taskmanager.exception.TaskNotFoundException;
+import com.sdmd.taskmanager.exception.TenantAccessDeniedException;
+import com.sdmd.taskmanager.exception.TenantNotAuthenticatedException;
+import com.sdmd.taskmanager.history.TaskHistoryReader;
+import com.sdmd.taskmanager.history.TaskHistoryWriter;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.repository.TaskHistoryRepository;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import com.sdmd.taskmanager.tree.TaskRollupMaintainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskServiceImpl.class, TaskMapperImpl.class, TaskRollupMaintainer.class, TaskHistoryWriter.class,
+        TaskHistoryReader.class, HistoryProperties.class, PaginationProperties.class, BatchProperties.class,
+        CacheConfig.class, JacksonConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+public class TenantIsolationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskHistoryReader history;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskHistoryRepository historyRepository;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        historyRepository.deleteAll();
+    }
+
+    @Test
+    void tenantsOnlySeeTheirOwnTasks() {
+        Task mine = as("acme", () -> taskService.createTask(request("acme's task", null)));
+        as("globex", () -> taskService.createTask(request("globex's task", null)));
+        // cached for acme; globex must not be answered from that copy
+        as("acme", () -> taskService.getTaskById(mine.getId()));
+
+        assertThat(as("acme", () -> taskService.getTasks(TaskQuery.all(), null, null).getItems()))
+                .extracting(Task::getTitle).containsExactly("acme's task");
+        assertThatThrownBy(() -> as("globex", () -> taskService.getTaskById(mine.getId())))
+                .isInstanceOf(TaskNotFoundException.class);
+        assertThatThrownBy(() -> as("globex", () -> taskService.patchTask(mine.getId(), rename("taken over"))))
+                .isInstanceOf(TaskNotFoundException.class);
+        // deleting is idempotent: for globex the task simply is not there
+        as("globex", () -> {
+            taskService.deleteTask(mine.getId());
+            return null;
+        });
+        assertThat(as("globex", () -> history.getHistory(mine.getId(), null, null).getItems())).isEmpty();
+        assertThatThrownBy(() -> as("globex", () -> history.getTaskAsOf(mine.getId(), OffsetDateTime.now())))
+                .isInstanceOf(TaskHistoryNotFoundException.class);
+        // nor can a subtask be hung under another tenant's task
+        assertThatThrownBy(() -> as("globex", () -> taskService.createTask(request("subtask", mine.getId()))))
+                .isInstanceOf(InvalidQueryParameterException.class);
+
+        assertThat(as("acme", () -> taskService.getTaskById(mine.getId())).getTitle()).isEqualTo("acme's task");
+        assertThat(as("acme", () -> history.getHistory(mine.getId(), null, null).getItems())).hasSize(1);
+        // background jobs work outside any tenant and see everything
+        assertThat(taskRepository.findAll()).extracting(entity -> entity.getTenantId())
+                .containsExactlyInAnyOrder("acme", "globex");
+    }
+
+    @Test
+    void searchNeverRunsAcrossTenants() {
+        // the native search query is not filtered by Hibernate, so it needs a tenant of its own
+        assertThatThrownBy(() -> taskService.searchTasks("report", null, null))
+                .isInstanceOf(IllegalStateException.class);
+        // nor may a stream whose tenant was lost on the way to another thread dump every tenant's tasks
+        assertThatThrownBy(() -> taskService.streamTasks(task -> { }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void filterBindsTheRequestToItsTenant() throws Exception {
+        Instant now = Instant.parse("2025-01-06T09:00:00Z");
+        TenancyProperties properties = new TenancyProperties();
+        properties.setGatewaySecret("shared");
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        TenantFilter filter = new TenantFilter(properties, resolver, Clock.fixed(now, ZoneOffset.UTC));
+        List<String> seen = new ArrayList<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                seen.add(TenantContext.current());
+            }
+        };
+
+        filter.doFilter(tasksRequest("acme", TenantFilter.sign("shared", "acme", now.getEpochSecond() - 60)),
+                new MockHttpServletResponse(), chain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "alice", null, List.of(new SimpleGrantedAuthority("TENANT_globex"))));
+        try {
+            filter.doFilter(tasksRequest(null, null), new MockHttpServletResponse(), chain);
+            // a principal cannot borrow a tenant it was not granted, signed or not
+            filter.doFilter(tasksRequest("acme", TenantFilter.sign("shared", "acme", now.getEpochSecond())),
+                    new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertThat(seen).containsExactly("acme", null, "globex");
+        Mockito.verify(resolver).resolveException(any(), any(), isNull(), any(TenantAccessDeniedException.class));
+
+        // the header alone, a signature for another tenant, a stale one, or nothing at all
+        filter.doFilter(tasksRequest("acme", null), new MockHttpServletResponse(), chain);
+        filter.doFilter(tasksRequest("acme", TenantFilter.sign("shared", "globex", now.getEpochSecond())),
+                new MockHttpServletResponse(), chain);
+        filter.doFilter(tasksRequest("acme", TenantFilter.sign("shared", "acme", now.getEpochSecond() - 600)),
+                new MockHttpServletResponse(), chain);
+        filter.doFilter(tasksRequest(null, null), new MockHttpServletResponse(), chain);
+        Mockito.verify(resolver, Mockito.times(4)).resolveException(any(), any(), isNull(), any(TenantNotAuthenticatedException.class));
+        filter.doFilter(tasksRequest("*", null), new MockHttpServletResponse(), chain);
+        Mockito.verify(resolver).resolveException(any(), any(), isNull(), any(InvalidQueryParameterException.class));
+
+        // a single-tenant deployment
+        properties.setDefaultTenant("default");
+        filter.doFilter(tasksRequest(null, null), new MockHttpServletResponse(), chain);
+        assertThat(seen).containsExactly("acme", null, "globex", "default");
+        assertThat(TenantContext.current()).isNull();
+    }
+
+    @Test
+    void routesDedicatedTenantsToTheirOwnPool() throws Exception {
+        DataSource shared = mock(DataSource.class);
+        DataSource dedicated = mock(DataSource.class);
+        Connection sharedConnection = mock(Connection.class);
+        Connection dedicatedConnection = mock(Connection.class);
+        when(shared.getConnection()).thenReturn(sharedConnection);
+        when(dedicated.getConnection()).thenReturn(dedicatedConnection);
+        TenantRoutingDataSource routing = new TenantRoutingDataSource(shared, Map.of("acme", dedicated));
+
+        assertThat(as("acme", () -> connection(routing))).isSameAs(dedicatedConnection);
+        assertThat(as("globex", () -> connection(routing))).isSameAs(sharedConnection);
+        assertThat(routing.getConnection()).isSameAs(sharedConnection);
+    }
+
+    private static MockHttpServletRequest tasksRequest(String tenantId, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        if (tenantId != null) {
+            request.addHeader("X-Tenant-ID", tenantId);
+        }
+        if (signature != null) {
+            request.addHeader("X-Tenant-Signature", signature);
+        }
+        return request;
+    }
+
+    private static <T> T as(String tenantId, Supplier<T> work) {
+        return TenantContext.callAs(tenantId, work);
+    }
+
+    private static Connection connection(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static TaskPatch rename(String title) {
+        TaskPatch patch = new TaskPatch();
+        patch.setTitle(JsonNullable.of(title));
+        return patch;
+    }
+
+    private static TaskCreateRequest request(String title, Long parentId) {
+        return new TaskCreateRequest(title, title + " description", OffsetDateTime.now().plusDays(1), parentId);
+    }
+}
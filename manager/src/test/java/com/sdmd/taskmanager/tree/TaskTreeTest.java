@@ -0,0 +1,136 @@
+package com.sdmd.taskmanager.tree;
+
+import com.sdmd.taskmanager.config.BatchProperties;
+import com.sdmd.taskmanager.config.CacheConfig;
+import com.sdmd.taskmanager.config.PaginationProperties;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskPatch;
+import com.sdmd.taskmanager.exception.InvalidQueryParameterException;
+import com.sdmd.taskmanager.exception.TaskHasSubtasksException;
+import com.sdmd.taskmanager.mapper.TaskMapperImpl;
+import com.sdmd.taskmanager.model.Task;
+import com.sdmd.taskmanager.model.TaskTreeNode;
+import com.sdmd.taskmanager.repository.TaskRepository;
+import com.sdmd.taskmanager.service.TaskService;
+import com.sdmd.taskmanager.service.impl.TaskServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskServiceImpl.class, TaskMapperImpl.class, TaskRollupMaintainer.class, PaginationProperties.class,
+        BatchProperties.class, CacheConfig.class})
+@ImportAutoConfiguration({CacheAutoConfiguration.class, ValidationAutoConfiguration.class})
+public class TaskTreeTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        // children first; there is no cascade
+        taskRepository.findAll().stream()
+                .sorted((a, b) -> Integer.compare(a.getSubtaskCount(), b.getSubtaskCount()))
+                .forEach(taskRepository::delete);
+    }
+
+    @Test
+    void loadsTheTreeInOneQueryWithRollupsKeptOnWrite() {
+        Task root = taskService.createTask(request("project", null));
+        Task design = taskService.createTask(request("design", root.getId()));
+        // created through the batch path, both in one transaction
+        TaskBatchResult built = taskService.createTasks(List.of(request("build", root.getId()), request("wireframes", design.getId())));
+        Long build = built.getItems().get(0).getId();
+        Long wireframes = built.getItems().get(1).getId();
+        complete(design.getId());
+        complete(wireframes);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        TaskTreeNode tree = taskService.getTaskTree(root.getId(), null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(tree.getTitle()).isEqualTo("project");
+        assertThat(tree.getSubtaskCount()).isEqualTo(2);
+        assertThat(tree.getCompletedSubtaskCount()).isEqualTo(1);
+        assertThat(tree.getChildren()).extracting(TaskTreeNode::getId).containsExactly(design.getId(), build);
+        TaskTreeNode designNode = tree.getChildren().get(0);
+        assertThat(designNode.getSubtaskCount()).isEqualTo(1);
+        assertThat(designNode.getCompletedSubtaskCount()).isEqualTo(1);
+        assertThat(designNode.getChildren()).extracting(TaskTreeNode::getId).containsExactly(wireframes);
+        assertThat(designNode.getChildren().get(0).getChildren()).isEmpty();
+
+        // the rollup moved the parent's version, so its ETag changes too
+        assertThat(taskService.getTaskById(root.getId()).getVersion()).isGreaterThan(root.getVersion());
+
+        TaskTreeNode shallow = taskService.getTaskTree(root.getId(), 1);
+        assertThat(shallow.getChildren()).hasSize(2);
+        assertThat(shallow.getChildren().get(0).getChildren()).isEmpty();
+        assertThatThrownBy(() -> taskService.getTaskTree(root.getId(), -1))
+                .isInstanceOf(InvalidQueryParameterException.class);
+    }
+
+    @Test
+    void subtasksMustBeDeletedBeforeTheirParent() {
+        Task root = taskService.createTask(request("project", null));
+        Task child = taskService.createTask(request("child", root.getId()));
+
+        assertThatThrownBy(() -> taskService.deleteTask(root.getId()))
+                .isInstanceOf(TaskHasSubtasksException.class);
+        TaskBatchResult blocked = taskService.deleteTasks(List.of(root.getId()));
+        assertThat(blocked.getItems().get(0).getOutcome()).isEqualTo(TaskBatchItemResult.Outcome.FAILED);
+
+        taskService.deleteTask(child.getId());
+        assertThat(taskService.getTaskTree(root.getId(), null).getSubtaskCount()).isZero();
+        taskService.deleteTask(root.getId());
+        assertThat(taskRepository.count()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownParents() {
+        assertThatThrownBy(() -> taskService.createTask(request("orphan", -1L)))
+                .isInstanceOf(InvalidQueryParameterException.class);
+
+        List<TaskCreateRequest> requests = new ArrayList<>();
+        requests.add(request("orphan", -1L));
+        TaskBatchResult result = taskService.createTasks(requests);
+        assertThat(result.getItems().get(0).getError()).isEqualTo("parentId: Task with id -1 not found.");
+    }
+
+    private void complete(Long id) {
+        TaskPatch patch = new TaskPatch();
+        patch.setStatus(JsonNullable.of(Task.StatusEnum.COMPLETED));
+        taskService.patchTask(id, patch);
+    }
+
+    private static TaskCreateRequest request(String title, Long parentId) {
+        return new TaskCreateRequest(title, title + " description", OffsetDateTime.now().plusDays(1), parentId);
+    }
+}
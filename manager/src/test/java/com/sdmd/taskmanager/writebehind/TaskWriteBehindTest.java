@@ -0,0 +1,182 @@
+package com.sdmd.taskmanager.writebehind;
+
+import com.sdmd.taskmanager.config.WriteBehindProperties;
+import com.sdmd.taskmanager.dto.TaskBatchItemResult;
+import com.sdmd.taskmanager.dto.TaskBatchResult;
+import com.sdmd.taskmanager.dto.TaskCreateRequest;
+import com.sdmd.taskmanager.dto.TaskWriteStatus;
+import com.sdmd.taskmanager.exception.ServiceOverloadedException;
+import com.sdmd.taskmanager.exception.TaskBatchIncompleteException;
+import com.sdmd.taskmanager.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+public class TaskWriteBehindTest {
+
+    private TaskService taskService;
+    private WriteBehindProperties properties;
+    private SimpleMeterRegistry registry;
+    // sizes of the batches handed to createTasks
+    private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong ids = new AtomicLong();
+
+    // titles of the tasks handed to createTasks, per call
+    private final List<List<String>> titles = Collections.synchronizedList(new ArrayList<>());
+    private final Answer<TaskBatchResult> create = invocation -> {
+        List<TaskCreateRequest> requests = invocation.getArgument(0);
+        batches.add(requests.size());
+        titles.add(requests.stream().map(TaskCreateRequest::getTitle).toList());
+        TaskBatchResult result = new TaskBatchResult();
+        for (int i = 0; i < requests.size(); i++) {
+            result.add(requests.get(i).getTitle().equals("bad")
+                    ? TaskBatchItemResult.failure(i, null, "title: rejected")
+                    : TaskBatchItemResult.success(i, ids.incrementAndGet(), TaskBatchItemResult.Outcome.CREATED));
+        }
+        return result;
+    };
+
+    @BeforeEach
+    void setup() {
+        taskService = Mockito.mock(TaskService.class);
+        when(taskService.createTasks(anyList())).thenAnswer(create);
+        properties = new WriteBehindProperties();
+        properties.setCapacity(5);
+        properties.setMaxBatchSize(2);
+        properties.setRetryBackoff(Duration.ZERO);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void persistsQueuedTasksInGroupCommitsAndFlushesOnStop() throws Exception {
+        TaskWriteBehind writeBehind = new TaskWriteBehind(taskService, properties, registry);
+        List<UUID> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trackingIds.add(writeBehind.enqueue(request("task " + i)));
+        }
+        assertThat(writeBehind.status(trackingIds.get(0))).get()
+                .extracting(TaskWriteStatus::getState).isEqualTo(TaskWriteStatus.State.QUEUED);
+
+        writeBehind.start();
+        writeBehind.stop();
+
+        assertThat(trackingIds).allSatisfy(id -> assertThat(writeBehind.status(id)).get()
+                .extracting(TaskWriteStatus::getState).isEqualTo(TaskWriteStatus.State.PERSISTED));
+        assertThat(writeBehind.status(trackingIds.get(4)).get().getTaskId()).isEqualTo(5L);
+        assertThat(batches).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(2));
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(writeBehind.getQueueSize()).isZero();
+        assertThat(registry.get("taskmanager.write-behind.tasks").tag("outcome", "persisted").counter().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void rejectsWhenFullAndAfterStop() throws Exception {
+        TaskWriteBehind writeBehind = new TaskWriteBehind(taskService, properties, registry);
+        for (int i = 0; i < 5; i++) {
+            writeBehind.enqueue(request("task " + i));
+        }
+
+        assertThatThrownBy(() -> writeBehind.enqueue(request("one too many")))
+                .isInstanceOf(ServiceOverloadedException.class);
+
+        writeBehind.start();
+        writeBehind.stop();
+
+        assertThatThrownBy(() -> writeBehind.enqueue(request("too late")))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(registry.get("taskmanager.write-behind.tasks").tag("outcome", "rejected").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void reportsRejectedItemsAndFailedBatches() throws Exception {
+        TaskWriteBehind writeBehind = new TaskWriteBehind(taskService, properties, registry);
+        UUID good = writeBehind.enqueue(request("good"));
+        UUID bad = writeBehind.enqueue(request("bad"));
+
+        writeBehind.start();
+        writeBehind.stop();
+
+        assertThat(writeBehind.status(good).get().getState()).isEqualTo(TaskWriteStatus.State.PERSISTED);
+        assertThat(writeBehind.status(bad).get().getState()).isEqualTo(TaskWriteStatus.State.FAILED);
+        assertThat(writeBehind.status(bad).get().getError()).isEqualTo("title: rejected");
+        assertThat(writeBehind.status(UUID.randomUUID())).isEmpty();
+
+        // nothing can be written at all: retried, then reported as failed
+        when(taskService.createTasks(anyList())).thenThrow(new IllegalStateException("database down"));
+        TaskWriteBehind unreachable = new TaskWriteBehind(taskService, properties, new SimpleMeterRegistry());
+        UUID lost = unreachable.enqueue(request("lost"));
+
+        unreachable.start();
+        unreachable.stop();
+
+        assertThat(unreachable.status(lost).get().getState()).isEqualTo(TaskWriteStatus.State.FAILED);
+        assertThat(unreachable.status(lost).get().getError()).isEqualTo("database down");
+        Mockito.verify(taskService, Mockito.times(1 + properties.getMaxAttempts())).createTasks(anyList());
+    }
+
+    @Test
+    void retriesOnlyTheTasksAFailedBatchDidNotWrite() throws Exception {
+        // the first chunk committed before the failure
+        TaskBatchResult settled = new TaskBatchResult();
+        settled.add(TaskBatchItemResult.success(0, 100L, TaskBatchItemResult.Outcome.CREATED));
+        Mockito.doThrow(new TaskBatchIncompleteException(settled, new IllegalStateException("connection lost")))
+                .doAnswer(create)
+                .when(taskService).createTasks(anyList());
+        TaskWriteBehind writeBehind = new TaskWriteBehind(taskService, properties, registry);
+        UUID first = writeBehind.enqueue(request("first"));
+        UUID second = writeBehind.enqueue(request("second"));
+
+        writeBehind.start();
+        writeBehind.stop();
+
+        assertThat(titles).containsExactly(List.of("second"));
+        assertThat(writeBehind.status(first).get().getTaskId()).isEqualTo(100L);
+        assertThat(writeBehind.status(second).get().getState()).isEqualTo(TaskWriteStatus.State.PERSISTED);
+        assertThat(registry.get("taskmanager.write-behind.tasks").tag("outcome", "persisted").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void writerOutlivesAnUnexpectedFailure() throws Exception {
+        Mockito.doThrow(new StackOverflowError("deep"))
+                .doAnswer(create)
+                .when(taskService).createTasks(anyList());
+        TaskWriteBehind writeBehind = new TaskWriteBehind(taskService, properties, registry);
+        List<UUID> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            trackingIds.add(writeBehind.enqueue(request("task " + i)));
+        }
+
+        writeBehind.start();
+        writeBehind.stop();
+
+        // the first batch is reported as failed instead of staying queued, the second is still written
+        assertThat(trackingIds).extracting(id -> writeBehind.status(id).get().getState())
+                .containsExactly(TaskWriteStatus.State.FAILED, TaskWriteStatus.State.FAILED,
+                        TaskWriteStatus.State.PERSISTED, TaskWriteStatus.State.PERSISTED);
+        assertThat(writeBehind.getQueueSize()).isZero();
+    }
+
+    private static TaskCreateRequest request(String title) {
+        TaskCreateRequest request = new TaskCreateRequest();
+        request.setTitle(title);
+        request.setDescription("description");
+        return request;
+    }
+}